@@ -0,0 +1,83 @@
+package org.example.taskmanager.benchmark;
+
+import org.example.taskmanager.TaskManagerApplication;
+import org.example.taskmanager.dto.NewTaskRequest;
+import org.example.taskmanager.model.Role;
+import org.example.taskmanager.model.TaskPriority;
+import org.example.taskmanager.model.User;
+import org.example.taskmanager.repository.UserRepository;
+import org.example.taskmanager.service.JWTService;
+import org.example.taskmanager.service.TaskManagerService;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Application started on a migrated Postgres container, connected with the JDBC URL flags of the production
+ * configuration, and seeded with one user owning {@code taskCount} tasks.
+ */
+@State(Scope.Benchmark)
+public class ApplicationState {
+    @Param("10000")
+    public int taskCount;
+
+    private PostgreSQLContainer<?> postgres;
+    public ConfigurableApplicationContext context;
+    public User user;
+    public String token;
+
+    @Setup(Level.Trial)
+    public void start() {
+        postgres = new PostgreSQLContainer<>("postgres:14-alpine");
+        postgres.start();
+        String url = postgres.getJdbcUrl();
+        context = new SpringApplicationBuilder(TaskManagerApplication.class)
+                .profiles("benchmark")
+                .properties("spring.datasource.url=" + url + (url.contains("?") ? "&" : "?") + "reWriteBatchedInserts=true",
+                        "spring.datasource.username=" + postgres.getUsername(),
+                        "spring.datasource.password=" + postgres.getPassword())
+                .run();
+
+        user = context.getBean(UserRepository.class)
+                .save(User.builder().username("benchmark").password("benchmark").email("benchmark@example.org").userRole(Role.USER).build());
+        token = context.getBean(JWTService.class).generateToken(user.getUsername());
+
+        TaskManagerService service = context.getBean(TaskManagerService.class);
+        List<NewTaskRequest> batch = new ArrayList<>();
+        for (int i = 0; i < taskCount; i++) {
+            batch.add(newTaskRequest(user.getId(), i));
+            if (batch.size() == 1000) {
+                service.createTasks(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            service.createTasks(batch);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+        postgres.stop();
+    }
+
+    public static NewTaskRequest newTaskRequest(long authorId, int i) {
+        NewTaskRequest request = new NewTaskRequest();
+        request.setAuthorId(authorId);
+        request.setAssignee(authorId);
+        request.setTitle("Task " + i);
+        request.setDescription("Description of task " + i);
+        request.setPriority(TaskPriority.values()[i % TaskPriority.values().length]);
+        return request;
+    }
+}
@@ -0,0 +1,58 @@
+package org.example.taskmanager.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.taskmanager.security.JwtKeyProperties;
+import org.example.taskmanager.security.JwtKeyRing;
+import org.example.taskmanager.security.VerifiedToken;
+import org.example.taskmanager.service.JWTService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+    private JWTService cachingService;
+    private JWTService nonCachingService;
+    private String cachingToken;
+    private String nonCachingToken;
+
+    @Setup
+    public void setUp() {
+        JwtKeyRing keyRing = new JwtKeyRing(new JwtKeyProperties(null, List.of()), new ObjectMapper());
+        cachingService = new JWTService(keyRing, 10_000, new SimpleMeterRegistry());
+        nonCachingService = new JWTService(keyRing, 0, new SimpleMeterRegistry());
+        cachingToken = cachingService.generateToken("benchmark");
+        nonCachingToken = nonCachingService.generateToken("benchmark");
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return cachingService.generateToken("benchmark");
+    }
+
+    @Benchmark
+    public VerifiedToken verifyCached() {
+        return cachingService.verify(cachingToken);
+    }
+
+    @Benchmark
+    public VerifiedToken verifyUncached() {
+        return nonCachingService.verify(nonCachingToken);
+    }
+}
@@ -0,0 +1,68 @@
+package org.example.taskmanager.benchmark;
+
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.example.taskmanager.security.JwtFilter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of authenticating a bearer token, for the JWT filter alone and for the whole security filter chain.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtFilterBenchmark {
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+    private JwtFilter jwtFilter;
+    private Filter securityFilterChain;
+    private String authorization;
+
+    @Setup
+    public void setUp(ApplicationState application) {
+        jwtFilter = application.context.getBean(JwtFilter.class);
+        securityFilterChain = application.context.getBean("springSecurityFilterChain", Filter.class);
+        authorization = "Bearer " + application.token;
+    }
+
+    @Benchmark
+    public MockHttpServletResponse jwtFilter() throws ServletException, IOException {
+        return filter(jwtFilter);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse securityFilterChain() throws ServletException, IOException {
+        return filter(securityFilterChain);
+    }
+
+    private MockHttpServletResponse filter(Filter filter) throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tasks");
+        request.addHeader("Authorization", authorization);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            filter.doFilter(request, response, NO_OP_CHAIN);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+        return response;
+    }
+}
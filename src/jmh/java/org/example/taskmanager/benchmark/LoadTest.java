@@ -0,0 +1,271 @@
+package org.example.taskmanager.benchmark;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Throughput and latency of the packaged application on platform threads and on virtual threads, under the same
+ * number of concurrent clients, each looping over GET /api/tasks as one authenticated user. Rate limiting is turned
+ * off so that the limits do not hide what the server itself sustains.
+ * <p>
+ * The virtual-thread run records {@code jdk.VirtualThreadPinned} events with JFR at a zero threshold and also prints
+ * pinned stacks via {@code jdk.tracePinnedThreads} into its log. Any pinning event fails the run and lists the top
+ * frames, so that a driver or Hibernate upgrade that starts pinning carrier threads is caught.
+ * <p>
+ * Needs a jar in the build directory and the database from {@code spring.datasource}, already migrated; the API does
+ * not expose user ids, so the id of the registered user is read from that database, configured with the
+ * {@code load.jdbc-url}, {@code load.jdbc-user} and {@code load.jdbc-password} system properties.
+ * Arguments: build directory, concurrent clients, measured seconds.
+ */
+public class LoadTest {
+    private static final Duration WARMUP = Duration.ofSeconds(10);
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+
+    private record Mode(String name, String profile, boolean recordPinning) {
+    }
+
+    private record Result(double requestsPerSecond, long p50Micros, long p99Micros, long errors) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path buildDirectory = Path.of(args.length > 0 ? args[0] : "target");
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+        Duration measured = Duration.ofSeconds(args.length > 2 ? Long.parseLong(args[2]) : 30);
+        Path jar = applicationJar(buildDirectory);
+
+        List<Mode> modes = List.of(
+                new Mode("platform", "default", false),
+                new Mode("virtual", "virtual-threads", true));
+
+        System.out.printf("%d clients, %s measured%n", clients, measured);
+        System.out.printf("%-10s %12s %10s %10s %8s%n", "mode", "req/s", "p50 ms", "p99 ms", "errors");
+        boolean pinned = false;
+        for (Mode mode : modes) {
+            Path recording = buildDirectory.resolve("load-" + mode.name() + ".jfr");
+            Path log = buildDirectory.resolve("load-" + mode.name() + ".log");
+            Result result = run(jar, mode, clients, measured, recording, log);
+            System.out.printf("%-10s %12.0f %10.2f %10.2f %8d%n", mode.name(), result.requestsPerSecond(),
+                    result.p50Micros() / 1000.0, result.p99Micros() / 1000.0, result.errors());
+            if (mode.recordPinning()) {
+                pinned = reportPinning(recording);
+            }
+        }
+        if (pinned) {
+            System.exit(1);
+        }
+    }
+
+    private static Result run(Path jar, Mode mode, int clients, Duration measured, Path recording, Path log)
+            throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>(List.of(java()));
+        if (mode.recordPinning()) {
+            command.add("-XX:StartFlightRecording=filename=" + recording + ",jdk.VirtualThreadPinned#threshold=0ms");
+            command.add("-Djdk.tracePinnedThreads=short");
+        }
+        command.addAll(List.of("-jar", jar.toString(),
+                "--spring.profiles.active=" + mode.profile(),
+                "--server.port=" + port,
+                "--management.server.port=" + freePort(),
+                "--rate-limit.enabled=false"));
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            HttpClient client = HttpClient.newBuilder().executor(executor).connectTimeout(Duration.ofSeconds(5)).build();
+            String base = "http://localhost:" + port + "/api";
+            awaitStartup(process, client, base);
+
+            String user = "load-" + System.nanoTime();
+            String token = authenticate(client, base, user);
+            long userId = userId(user);
+            seed(client, base, token, userId);
+            HttpRequest request = HttpRequest.newBuilder(URI.create(base + "/tasks"))
+                    .header("Authorization", "Bearer " + token)
+                    .header("Content-Type", "application/json")
+                    .method("GET", HttpRequest.BodyPublishers.ofString("""
+                            {"authorId": %d, "from": "%s", "to": "%s", "offset": 0, "pageSize": 20}"""
+                            .formatted(userId, LocalDate.now().minusDays(1), LocalDate.now())))
+                    .build();
+
+            long warmupEnd = System.nanoTime() + WARMUP.toNanos();
+            long end = warmupEnd + measured.toNanos();
+            AtomicLong errors = new AtomicLong();
+            List<long[]> latencies = new ArrayList<>();
+            List<Thread> threads = new ArrayList<>(clients);
+            for (int i = 0; i < clients; i++) {
+                long[] samples = new long[1 << 12];
+                int[] count = new int[1];
+                latencies.add(samples);
+                threads.add(Thread.ofVirtual().start(() -> {
+                    while (true) {
+                        long start = System.nanoTime();
+                        if (start > end) {
+                            break;
+                        }
+                        boolean ok;
+                        try {
+                            ok = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+                        } catch (IOException e) {
+                            ok = false;
+                        } catch (InterruptedException e) {
+                            return;
+                        }
+                        if (start < warmupEnd) {
+                            continue;
+                        }
+                        if (!ok) {
+                            errors.incrementAndGet();
+                        } else if (count[0] < samples.length) {
+                            samples[count[0]++] = (System.nanoTime() - start) / 1000 + 1;
+                        }
+                    }
+                }));
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+
+            long[] all = latencies.stream().flatMapToLong(Arrays::stream).filter(micros -> micros > 0).sorted().toArray();
+            return new Result(all.length / (double) measured.toSeconds(),
+                    percentile(all, 0.50), percentile(all, 0.99), errors.get());
+        } finally {
+            process.destroy();
+            process.waitFor();
+        }
+    }
+
+    private static void awaitStartup(Process process, HttpClient client, String base) throws Exception {
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        HttpRequest probe = HttpRequest.newBuilder(URI.create(base + "/task/0")).build();
+        while (true) {
+            if (!process.isAlive() || System.nanoTime() > deadline) {
+                throw new IllegalStateException("Application did not start, exit value " +
+                        (process.isAlive() ? "n/a" : process.exitValue()));
+            }
+            try {
+                client.send(probe, HttpResponse.BodyHandlers.discarding());
+                return;
+            } catch (IOException e) {
+                Thread.sleep(100);
+            }
+        }
+    }
+
+    private static String authenticate(HttpClient client, String base, String user) throws Exception {
+        String body = """
+                {"username": "%s", "password": "load-test", "email": "%s@example.org"}""".formatted(user, user);
+        post(client, base + "/auth/register", null, body);
+        return post(client, base + "/auth/login", null, body);
+    }
+
+    private static long userId(String username) throws Exception {
+        try (Connection connection = DriverManager.getConnection(
+                System.getProperty("load.jdbc-url", "jdbc:postgresql://localhost:5432/postgres"),
+                System.getProperty("load.jdbc-user", "postgres"),
+                System.getProperty("load.jdbc-password", "postgres"));
+             PreparedStatement statement = connection.prepareStatement("select id from users where username = ?")) {
+            statement.setString(1, username);
+            try (ResultSet result = statement.executeQuery()) {
+                if (!result.next()) {
+                    throw new IllegalStateException("User " + username + " was not registered");
+                }
+                return result.getLong(1);
+            }
+        }
+    }
+
+    // One page of tasks for the user, so that every request reads rows and counts comments.
+    private static void seed(HttpClient client, String base, String token, long userId) throws Exception {
+        String tasks = Stream.generate(() -> """
+                        {"title": "Load test", "description": "Load test", "priority": "MEDIUM", "authorId": %d, "assignee": %d}"""
+                        .formatted(userId, userId))
+                .limit(100)
+                .collect(Collectors.joining(",", "[", "]"));
+        post(client, base + "/tasks/batch", token, tasks);
+    }
+
+    private static String post(HttpClient client, String url, String token, String body) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        HttpResponse<String> response = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException(url + " answered " + response.statusCode() + ": " + response.body());
+        }
+        return response.body();
+    }
+
+    private static boolean reportPinning(Path recording) throws IOException {
+        Map<String, Long> byFrame = new TreeMap<>();
+        long events = 0;
+        for (RecordedEvent event : RecordingFile.readAllEvents(recording)) {
+            if (!event.getEventType().getName().equals("jdk.VirtualThreadPinned")) {
+                continue;
+            }
+            events++;
+            List<RecordedFrame> frames = event.getStackTrace() != null ? event.getStackTrace().getFrames() : List.of();
+            String top = frames.stream()
+                    .filter(frame -> !frame.getMethod().getType().getName().startsWith("java."))
+                    .findFirst()
+                    .map(frame -> frame.getMethod().getType().getName() + "." + frame.getMethod().getName())
+                    .orElse("<unknown>");
+            byFrame.merge(top, 1L, Long::sum);
+        }
+        System.out.printf("virtual thread pinning events: %d%n", events);
+        byFrame.forEach((frame, count) -> System.out.printf("  %6d  %s%n", count, frame));
+        return events > 0;
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        return sorted.length == 0 ? 0 : sorted[(int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1)];
+    }
+
+    private static Path applicationJar(Path buildDirectory) throws IOException {
+        try (Stream<Path> files = Files.list(buildDirectory)) {
+            return files.filter(file -> file.getFileName().toString().matches("TaskManager-.*\\.jar"))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("No application jar in " + buildDirectory));
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static String java() {
+        return Path.of(System.getProperty("java.home"), "bin", "java").toString();
+    }
+}
@@ -0,0 +1,81 @@
+package org.example.taskmanager.benchmark;
+
+import org.example.taskmanager.dto.NewUserRequest;
+import org.example.taskmanager.dto.TaskSummary;
+import org.example.taskmanager.dto.TasksRequest;
+import org.example.taskmanager.service.AuthenticationService;
+import org.example.taskmanager.service.TaskManagerService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares task paging latency alone ({@code tasks}) with the same load while eight other threads keep logging in
+ * ({@code tasksDuringLogins}). The login rate a node sustains is eight divided by the mean {@code login} time.
+ * Run with {@code -Djmh.include=LoginBenchmark}; set {@code password.bcrypt-strength} and
+ * {@code password.hashing.threads} in application-benchmark.yaml to compare costs and pool sizes.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoginBenchmark {
+    private AuthenticationService authenticationService;
+    private TaskManagerService taskManagerService;
+    private NewUserRequest loginRequest;
+    private TasksRequest tasksRequest;
+
+    @Setup
+    public void setUp(ApplicationState application) {
+        authenticationService = application.context.getBean(AuthenticationService.class);
+        taskManagerService = application.context.getBean(TaskManagerService.class);
+
+        loginRequest = new NewUserRequest();
+        loginRequest.setUsername("login-benchmark");
+        loginRequest.setPassword("login-benchmark");
+        loginRequest.setEmail("login-benchmark@example.org");
+        authenticationService.register(loginRequest).join();
+
+        tasksRequest = new TasksRequest();
+        tasksRequest.setAuthorId(application.user.getId());
+        tasksRequest.setFrom(LocalDate.now().minusDays(1));
+        tasksRequest.setTo(LocalDate.now());
+        tasksRequest.setPageSize(100);
+    }
+
+    @Benchmark
+    @Group("tasks")
+    @GroupThreads(4)
+    public Page<TaskSummary> tasksAlone() {
+        return taskManagerService.getTasksPaged(tasksRequest);
+    }
+
+    @Benchmark
+    @Group("tasksDuringLogins")
+    @GroupThreads(4)
+    public Page<TaskSummary> tasksDuringLogins() {
+        return taskManagerService.getTasksPaged(tasksRequest);
+    }
+
+    @Benchmark
+    @Group("tasksDuringLogins")
+    @GroupThreads(8)
+    public String login() {
+        return authenticationService.login(loginRequest).join();
+    }
+}
@@ -0,0 +1,128 @@
+package org.example.taskmanager.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.taskmanager.dto.TaskResponse;
+import org.example.taskmanager.dto.TaskSummary;
+import org.example.taskmanager.model.Task;
+import org.example.taskmanager.model.TaskPriority;
+import org.example.taskmanager.model.TaskStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.web.PagedModel;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialization of task pages with the mappers MVC actually writes responses with: the JPA entities as
+ * Jackson dumps them by default, against the response DTOs as JSON and CBOR. The bytes on the wire for each
+ * representation, raw and gzipped, are printed once per trial.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+    @Param({"100", "1000"})
+    public int pageSize;
+
+    private ObjectMapper json;
+    private ObjectMapper cbor;
+    private Page<Task> taskPage;
+    private PagedModel<TaskResponse> responsePage;
+    private PagedModel<TaskSummary> summaryPage;
+
+    @Setup
+    public void setUp(ApplicationState application) throws IOException {
+        RequestMappingHandlerAdapter adapter = application.context.getBean(RequestMappingHandlerAdapter.class);
+        json = mapper(adapter, MappingJackson2HttpMessageConverter.class);
+        cbor = mapper(adapter, MappingJackson2CborHttpMessageConverter.class);
+
+        List<Task> tasks = new ArrayList<>(pageSize);
+        List<TaskResponse> responses = new ArrayList<>(pageSize);
+        List<TaskSummary> summaries = new ArrayList<>(pageSize);
+        for (long i = 0; i < pageSize; i++) {
+            Task task = new Task(i, "Task " + i, "Description of task " + i, TaskStatus.IN_PROGRESS,
+                    TaskPriority.MEDIUM, 1L, 2L, new ArrayList<>(), LocalDate.now(), 0, false);
+            tasks.add(task);
+            responses.add(TaskResponse.of(task));
+            summaries.add(new TaskSummary(task.getId(), task.getTitle(), task.getStatus(), task.getPriority(),
+                    task.getAuthor(), task.getAssignee(), task.getCreationDate(), 0, task.getVersion()));
+        }
+        PageRequest pageRequest = PageRequest.of(0, pageSize);
+        taskPage = new PageImpl<>(tasks, pageRequest, 10_000);
+        responsePage = new PagedModel<>(new PageImpl<>(responses, pageRequest, 10_000));
+        summaryPage = new PagedModel<>(new PageImpl<>(summaries, pageRequest, 10_000));
+
+        System.out.printf("%n%d tasks, bytes raw/gzip: entity json %s, response json %s, response cbor %s, summary json %s%n",
+                pageSize, sizes(taskPage()), sizes(responsePageJson()), sizes(responsePageCbor()), sizes(summaryPage()));
+    }
+
+    private static ObjectMapper mapper(RequestMappingHandlerAdapter adapter, Class<?> converterType) {
+        return adapter.getMessageConverters().stream()
+                .filter(converterType::isInstance)
+                .map(converter -> ((AbstractJackson2HttpMessageConverter) converter).getObjectMapper())
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static String sizes(byte[] body) throws IOException {
+        return body.length + "/" + gzip(body).length;
+    }
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(body);
+        }
+        return compressed.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] taskPage() throws IOException {
+        return json.writeValueAsBytes(taskPage);
+    }
+
+    @Benchmark
+    public byte[] responsePageJson() throws IOException {
+        return json.writeValueAsBytes(responsePage);
+    }
+
+    @Benchmark
+    public byte[] responsePageCbor() throws IOException {
+        return cbor.writeValueAsBytes(responsePage);
+    }
+
+    @Benchmark
+    public byte[] responsePageJsonGzip() throws IOException {
+        return gzip(json.writeValueAsBytes(responsePage));
+    }
+
+    @Benchmark
+    public byte[] summaryPage() throws IOException {
+        return json.writeValueAsBytes(summaryPage);
+    }
+}
@@ -0,0 +1,159 @@
+package org.example.taskmanager.benchmark;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Cold start of the packaged application per startup profile: the time from launching the JVM until the first HTTP
+ * response, and the resident set size at that moment. Every sample is a new process, so this is a plain program
+ * rather than a JMH benchmark.
+ * <p>
+ * Takes the Maven build directory holding a jar built with {@code -Pfast-startup}; the jar is extracted and the CDS
+ * archive trained there when missing. Needs the database from {@code spring.datasource}, already migrated. RSS is
+ * read from /proc and only reported on Linux.
+ */
+public class StartupBenchmark {
+    private static final Duration TIMEOUT = Duration.ofMinutes(2);
+
+    private record Variant(String name, String profile, List<String> jvmOptions) {
+    }
+
+    private record Sample(long firstResponseMillis, long rssKib) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path buildDirectory = Path.of(args.length > 0 ? args[0] : "target");
+        int runs = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        Path extracted = buildDirectory.resolve("extracted");
+        Path jar = extract(buildDirectory, extracted);
+        Path archive = extracted.resolve("application.jsa");
+        if (!Files.exists(archive)) {
+            train(jar, archive);
+        }
+
+        List<Variant> variants = List.of(
+                new Variant("default", "default", List.of()),
+                new Variant("fast-startup", "fast-startup", List.of("-Dspring.aot.enabled=true")),
+                new Variant("fast-startup+cds", "fast-startup",
+                        List.of("-Dspring.aot.enabled=true", "-XX:SharedArchiveFile=" + archive)));
+
+        System.out.printf("%-18s %18s %14s%n", "variant", "first response ms", "rss MiB");
+        for (Variant variant : variants) {
+            List<Sample> samples = new ArrayList<>(runs);
+            for (int i = 0; i < runs; i++) {
+                samples.add(measure(jar, variant));
+            }
+            long millis = median(samples.stream().mapToLong(Sample::firstResponseMillis).sorted().toArray());
+            long rssKib = median(samples.stream().mapToLong(Sample::rssKib).sorted().toArray());
+            System.out.printf("%-18s %18d %14s%n", variant.name(), millis, rssKib < 0 ? "n/a" : rssKib / 1024);
+        }
+    }
+
+    private static Path extract(Path buildDirectory, Path extracted) throws IOException, InterruptedException {
+        if (!Files.isDirectory(extracted)) {
+            Path packaged;
+            try (Stream<Path> files = Files.list(buildDirectory)) {
+                packaged = files.filter(file -> file.getFileName().toString().matches("TaskManager-.*\\.jar"))
+                        .findFirst()
+                        .orElseThrow(() -> new IllegalStateException("No application jar in " + buildDirectory));
+            }
+            run(List.of(java(), "-Djarmode=tools", "-jar", packaged.toString(), "extract", "--destination", extracted.toString()));
+        }
+        try (Stream<Path> files = Files.list(extracted)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".jar"))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("No application jar in " + extracted));
+        }
+    }
+
+    // Same training run as in the Dockerfile.
+    private static void train(Path jar, Path archive) throws IOException, InterruptedException {
+        run(List.of(java(), "-XX:ArchiveClassesAtExit=" + archive, "-Dspring.context.exit=onRefresh",
+                "-Dspring.aot.enabled=true", "-Dspring.profiles.active=fast-startup", "-jar", jar.toString()));
+    }
+
+    private static void run(List<String> command) throws IOException, InterruptedException {
+        Process process = new ProcessBuilder(command).inheritIO().start();
+        if (process.waitFor() != 0) {
+            throw new IllegalStateException(String.join(" ", command) + " exited with " + process.exitValue());
+        }
+    }
+
+    private static Sample measure(Path jar, Variant variant) throws IOException, InterruptedException {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(java());
+        command.addAll(variant.jvmOptions());
+        command.addAll(List.of("-jar", jar.toString(),
+                "--spring.profiles.active=" + variant.profile(),
+                "--server.port=" + port,
+                "--management.server.port=" + freePort()));
+
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        // Any status will do, an unauthenticated request is answered as soon as the server accepts connections.
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/task/0")).build();
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        try {
+            while (true) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException(variant.name() + " exited with " + process.exitValue());
+                }
+                if (System.nanoTime() - start > TIMEOUT.toNanos()) {
+                    throw new IllegalStateException(variant.name() + " did not answer within " + TIMEOUT);
+                }
+                try {
+                    client.send(request, HttpResponse.BodyHandlers.discarding());
+                    break;
+                } catch (IOException e) {
+                    Thread.sleep(5);
+                }
+            }
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            return new Sample(millis, rssKib(process.pid()));
+        } finally {
+            process.destroy();
+            process.waitFor();
+        }
+    }
+
+    private static long rssKib(long pid) {
+        try (Stream<String> lines = Files.lines(Path.of("/proc", Long.toString(pid), "status"))) {
+            return lines.filter(line -> line.startsWith("VmRSS:"))
+                    .map(line -> Long.parseLong(line.replaceAll("\\D", "")))
+                    .findFirst()
+                    .orElse(-1L);
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static String java() {
+        return Path.of(System.getProperty("java.home"), "bin", "java").toString();
+    }
+
+    private static long median(long[] sorted) {
+        return sorted[sorted.length / 2];
+    }
+}
@@ -0,0 +1,62 @@
+package org.example.taskmanager.benchmark;
+
+import org.example.taskmanager.dto.BatchTasksResponse;
+import org.example.taskmanager.dto.NewTaskRequest;
+import org.example.taskmanager.service.TaskManagerService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creating the same number of tasks through the batch endpoint's service method and through one createTask call
+ * each. Scores are tasks created per second, so the two are directly comparable.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TaskCreationBenchmark {
+    private static final int ITEMS = 500;
+
+    private TaskManagerService service;
+    private List<NewTaskRequest> requests;
+
+    @Setup
+    public void setUp(ApplicationState application) {
+        service = application.context.getBean(TaskManagerService.class);
+        long userId = application.user.getId();
+        requests = new ArrayList<>(ITEMS);
+        for (int i = 0; i < ITEMS; i++) {
+            requests.add(ApplicationState.newTaskRequest(userId, i));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ITEMS)
+    public BatchTasksResponse createTasksBatch() {
+        return service.createTasks(requests);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ITEMS)
+    public void createTaskSingly(Blackhole blackhole) {
+        for (NewTaskRequest request : requests) {
+            blackhole.consume(service.createTask(request));
+        }
+    }
+}
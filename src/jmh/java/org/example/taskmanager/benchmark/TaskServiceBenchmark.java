@@ -0,0 +1,92 @@
+package org.example.taskmanager.benchmark;
+
+import org.example.taskmanager.dto.TaskSummary;
+import org.example.taskmanager.dto.TasksRequest;
+import org.example.taskmanager.dto.TasksSliceResponse;
+import org.example.taskmanager.model.Task;
+import org.example.taskmanager.service.TaskManagerService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TaskServiceBenchmark {
+    private TaskManagerService service;
+    private long userId;
+    private int counter;
+
+    @Setup
+    public void setUp(ApplicationState application) {
+        service = application.context.getBean(TaskManagerService.class);
+        userId = application.user.getId();
+    }
+
+    @Benchmark
+    public Task createTask() {
+        return service.createTask(ApplicationState.newTaskRequest(userId, counter++));
+    }
+
+    @Benchmark
+    public Page<TaskSummary> getTasksPaged(Paging paging) {
+        return service.getTasksPaged(paging.pagedRequest);
+    }
+
+    @Benchmark
+    public TasksSliceResponse<TaskSummary> getTasksSlice(Paging paging) {
+        return service.getTasksSlice(paging.sliceRequest);
+    }
+
+    /**
+     * Requests for the same page of 100 tasks in offset and in cursor mode.
+     */
+    @State(Scope.Benchmark)
+    public static class Paging {
+        @Param({"0", "50"})
+        public int page;
+
+        TasksRequest pagedRequest;
+        TasksRequest sliceRequest;
+
+        @Setup
+        public void setUp(ApplicationState application) {
+            TaskManagerService service = application.context.getBean(TaskManagerService.class);
+            long userId = application.user.getId();
+
+            pagedRequest = tasksRequest(userId);
+            pagedRequest.setOffset(page);
+
+            sliceRequest = tasksRequest(userId);
+            TasksSliceResponse<TaskSummary> slice = service.getTasksSlice(sliceRequest);
+            for (int i = 0; i < page && slice.hasNext(); i++) {
+                sliceRequest.setCursor(slice.nextCursor());
+                slice = service.getTasksSlice(sliceRequest);
+            }
+        }
+
+        private static TasksRequest tasksRequest(long userId) {
+            TasksRequest request = new TasksRequest();
+            request.setAuthorId(userId);
+            request.setFrom(LocalDate.now().minusDays(1));
+            request.setTo(LocalDate.now());
+            request.setPageSize(100);
+            return request;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package org.example.taskmanager;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exits once the context is up under the migrate profile; by then Liquibase has applied the changelog.
+ */
+@Component
+@Profile("migrate")
+@RequiredArgsConstructor
+public class MigrationRunner implements ApplicationRunner {
+    private final ConfigurableApplicationContext context;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        System.exit(SpringApplication.exit(context));
+    }
+}
@@ -6,6 +6,8 @@ import org.example.taskmanager.service.AuthenticationService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/api/auth")
 @RequiredArgsConstructor
@@ -13,12 +15,12 @@ public class AuthController {
     private final AuthenticationService authenticationService;
 
     @PostMapping("/register")
-    public ResponseEntity<String> register(@RequestBody NewUserRequest request) {
-        return ResponseEntity.ok( authenticationService.register(request));
+    public CompletableFuture<ResponseEntity<String>> register(@RequestBody NewUserRequest request) {
+        return authenticationService.register(request).thenApply(ResponseEntity::ok);
     }
 
     @PostMapping("/login")
-    public ResponseEntity<String> login(@RequestBody NewUserRequest loginRequest) {
-        return ResponseEntity.ok(authenticationService.login(loginRequest));
+    public CompletableFuture<ResponseEntity<String>> login(@RequestBody NewUserRequest loginRequest) {
+        return authenticationService.login(loginRequest).thenApply(ResponseEntity::ok);
     }
-}
\ No newline at end of file
+}
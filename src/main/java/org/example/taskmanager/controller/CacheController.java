@@ -0,0 +1,34 @@
+package org.example.taskmanager.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import lombok.RequiredArgsConstructor;
+import org.example.taskmanager.dto.CacheStatsResponse;
+import org.example.taskmanager.service.UserCache;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/cache")
+@RequiredArgsConstructor
+public class CacheController {
+    private final UserCache userCache;
+
+    @Operation(summary = "User cache statistics", description = "Returns hit, miss and eviction counters of the user cache.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Statistics retrieved successfully"),
+            @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    @GetMapping("/users")
+    public ResponseEntity<Map<String, Object>> getUserCacheStats() {
+        return ResponseEntity.ok(Map.of(
+                "size", userCache.size(),
+                "byUsername", CacheStatsResponse.of(userCache.byUsernameStats()),
+                "byId", CacheStatsResponse.of(userCache.byIdStats())));
+    }
+}
@@ -0,0 +1,30 @@
+package org.example.taskmanager.controller;
+
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Tunes the Jackson converters MVC writes responses with. {@code @EnableWebMvc} means these are built by MVC itself
+ * rather than from Boot's {@code ObjectMapper}, so {@code spring.jackson.*} does not reach them. Both the JSON and the
+ * CBOR converter get Blackbird, which replaces reflective property access with generated lambdas.
+ */
+@Configuration
+public class MessageConverterConfig implements WebMvcConfigurer {
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        for (HttpMessageConverter<?> converter : converters) {
+            if (converter instanceof AbstractJackson2HttpMessageConverter jackson) {
+                jackson.getObjectMapper()
+                        .registerModule(new BlackbirdModule())
+                        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+            }
+        }
+    }
+}
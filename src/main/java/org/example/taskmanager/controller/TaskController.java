@@ -4,15 +4,35 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import lombok.RequiredArgsConstructor;
+import org.example.taskmanager.dto.BatchTasksResponse;
+import org.example.taskmanager.dto.BulkAssigneeRequest;
+import org.example.taskmanager.dto.BulkStatusRequest;
+import org.example.taskmanager.dto.BulkUpdateResponse;
+import org.example.taskmanager.dto.CommentResponse;
+import org.example.taskmanager.dto.ExportFormat;
 import org.example.taskmanager.dto.NewCommentRequest;
 import org.example.taskmanager.dto.NewTaskRequest;
+import org.example.taskmanager.dto.SliceResponse;
+import org.example.taskmanager.dto.TaskActivityResponse;
+import org.example.taskmanager.dto.TaskCountersResponse;
+import org.example.taskmanager.dto.TaskResponse;
+import org.example.taskmanager.dto.TaskSearchResponse;
+import org.example.taskmanager.dto.TaskSummary;
 import org.example.taskmanager.dto.TasksRequest;
-import org.example.taskmanager.model.Comment;
+import org.example.taskmanager.dto.TasksSliceResponse;
 import org.example.taskmanager.model.Task;
 import org.example.taskmanager.model.TaskStatus;
+import org.example.taskmanager.security.UserPrincipal;
+import org.example.taskmanager.service.TaskCounterService;
+import org.example.taskmanager.service.TaskEventBroker;
 import org.example.taskmanager.service.TaskManagerService;
 import org.springframework.data.domain.Page;
+import org.springframework.data.web.PagedModel;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -20,13 +40,21 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
 
 @RestController
 @RequestMapping("/api")
 @RequiredArgsConstructor
 public class TaskController {
     private final TaskManagerService taskManagerService;
+    private final TaskCounterService taskCounterService;
+    private final TaskEventBroker taskEventBroker;
 
     @Operation(summary = "Create a new task", description = "Creates a new task associated with the given author ID.")
     @ApiResponses(value = {
@@ -35,8 +63,20 @@ public class TaskController {
             @ApiResponse(responseCode = "403", description = "Access denied")
     })
     @PostMapping("/task")
-    public ResponseEntity<Task> createTask(@RequestBody NewTaskRequest request) {
-        return ResponseEntity.ok(taskManagerService.createTask(request));
+    public ResponseEntity<TaskResponse> createTask(@RequestBody NewTaskRequest request) {
+        Task task = taskManagerService.createTask(request);
+        return ResponseEntity.ok().eTag(TaskETags.of(task.getVersion())).body(TaskResponse.of(task));
+    }
+
+    @Operation(summary = "Create tasks in bulk", description = "Creates up to tasks.batch.max-items tasks in one call and reports the result of each item.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Batch processed, see per-item results"),
+            @ApiResponse(responseCode = "400", description = "Invalid input data or too many items"),
+            @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    @PostMapping("/tasks/batch")
+    public ResponseEntity<BatchTasksResponse> createTasks(@RequestBody List<NewTaskRequest> requests) {
+        return ResponseEntity.ok(taskManagerService.createTasks(requests));
     }
 
     @Operation(summary = "Add a comment to a task", description = "Adds a comment to the specified task.")
@@ -46,42 +86,164 @@ public class TaskController {
             @ApiResponse(responseCode = "403", description = "Access denied")
     })
     @PostMapping("/task/comment")
-    public ResponseEntity<Comment> addComment(@RequestBody NewCommentRequest request) {
-        return ResponseEntity.ok(taskManagerService.addCommentToTask(request));
+    public ResponseEntity<CommentResponse> addComment(@RequestBody NewCommentRequest request) {
+        return ResponseEntity.ok(CommentResponse.of(taskManagerService.addCommentToTask(request)));
+    }
+
+    @Operation(summary = "Get comments of a task", description = "Retrieves the comments of a task with pagination, oldest first.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Comments retrieved successfully"),
+            @ApiResponse(responseCode = "404", description = "Task not found"),
+            @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    @GetMapping("/task/{taskId}/comments")
+    public ResponseEntity<SliceResponse<CommentResponse>> getComments(@PathVariable long taskId,
+                                                                      @RequestParam(defaultValue = "0") int page,
+                                                                      @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(SliceResponse.of(taskManagerService.getComments(taskId, page, size)));
+    }
+
+    @Operation(summary = "Get history of a task", description = "Retrieves who changed the status, assignee or comments of a task, newest first.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "History retrieved successfully"),
+            @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    @GetMapping("/task/{taskId}/history")
+    public ResponseEntity<SliceResponse<TaskActivityResponse>> getTaskHistory(@PathVariable long taskId,
+                                                                              @RequestParam(defaultValue = "0") int page,
+                                                                              @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(SliceResponse.of(taskManagerService.getTaskHistory(taskId, page, size)));
     }
 
     @Operation(summary = "Assign a user to a task", description = "Assigns a user to a specific task.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Assignee set successfully"),
             @ApiResponse(responseCode = "404", description = "Task not found"),
+            @ApiResponse(responseCode = "412", description = "Task changed since the If-Match ETag was read"),
             @ApiResponse(responseCode = "403", description = "Access denied")
     })
     @PostMapping("/task/assign/{assigneeId}")
-    public ResponseEntity<Task> setAssignee(@PathVariable long assigneeId, @RequestHeader long taskId) {
-        return ResponseEntity.ok(taskManagerService.setAssignee(assigneeId, taskId));
+    public ResponseEntity<TaskResponse> setAssignee(@PathVariable long assigneeId, @RequestHeader long taskId,
+                                                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Task updatedTask = taskManagerService.setAssignee(assigneeId, taskId, TaskETags.expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(TaskETags.of(updatedTask.getVersion())).body(TaskResponse.of(updatedTask));
     }
 
-    @Operation(summary = "Get tasks with pagination", description = "Retrieves tasks based on author or assignee ID with pagination.")
+    @Operation(summary = "Get a task", description = "Retrieves a single task together with its comments. The ETag is the task version; send it back in If-None-Match to get 304 while the task is unchanged.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Task retrieved successfully"),
+            @ApiResponse(responseCode = "304", description = "Task has not changed since the If-None-Match ETag"),
+            @ApiResponse(responseCode = "404", description = "Task not found"),
+            @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    @GetMapping("/task/{taskId}")
+    public ResponseEntity<TaskResponse> getTask(@PathVariable long taskId, WebRequest request) {
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            String eTag = TaskETags.of(taskManagerService.getTaskVersion(taskId));
+            if (request.checkNotModified(eTag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+            }
+        }
+        Task task = taskManagerService.getTask(taskId);
+        return ResponseEntity.ok().eTag(TaskETags.of(task.getVersion())).body(TaskResponse.withComments(task));
+    }
+
+    @Operation(summary = "Get tasks with pagination", description = "Retrieves tasks based on author or assignee ID with pagination. Archived tasks are only listed with includeArchived.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Tasks retrieved successfully"),
+            @ApiResponse(responseCode = "304", description = "Page has not changed since the If-None-Match ETag"),
             @ApiResponse(responseCode = "400", description = "Invalid parameters"),
             @ApiResponse(responseCode = "403", description = "Access denied")
     })
     @GetMapping("/tasks")
-    public ResponseEntity<Page<Task>> getTasks(@RequestBody TasksRequest request) {
+    public ResponseEntity<PagedModel<TaskSummary>> getTasks(@RequestBody TasksRequest request) {
+        Page<TaskSummary> page = taskManagerService.getTasksPaged(request);
+        return ResponseEntity.ok().eTag(TaskETags.of(page)).body(new PagedModel<>(page));
+    }
+
+    @Operation(summary = "Get tasks by cursor", description = "Retrieves tasks based on author or assignee ID, newest first. Pass nextCursor from the previous response to continue. Archived tasks are only listed with includeArchived.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Tasks retrieved successfully"),
+            @ApiResponse(responseCode = "304", description = "Page has not changed since the If-None-Match ETag"),
+            @ApiResponse(responseCode = "400", description = "Invalid parameters or cursor"),
+            @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    @GetMapping("/tasks/cursor")
+    public ResponseEntity<TasksSliceResponse<TaskSummary>> getTasksByCursor(@RequestBody TasksRequest request) {
+        TasksSliceResponse<TaskSummary> slice = taskManagerService.getTasksSlice(request);
+        return ResponseEntity.ok().eTag(TaskETags.of(slice)).body(slice);
+    }
+
+    @Operation(summary = "Search tasks", description = "Full-text search over task titles, descriptions and comments of the tasks the caller authored or is assigned, with pagination, best matches first.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Tasks found successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid search query"),
+            @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    @GetMapping("/tasks/search")
+    public ResponseEntity<TaskSearchResponse> searchTasks(@RequestParam("q") String query,
+                                                          @RequestParam(defaultValue = "0") int page,
+                                                          @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(taskManagerService.searchTasks(query, page, size));
+    }
+
+    @Operation(summary = "Get task counters", description = "Returns the number of tasks per status and priority for the given assignee, or for every assignee.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Counters retrieved successfully"),
+            @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    @GetMapping("/tasks/counters")
+    public ResponseEntity<List<TaskCountersResponse>> getCounters(@RequestParam(required = false) Long assigneeId) {
+        return ResponseEntity.ok(taskCounterService.getCounters(assigneeId));
+    }
+
+    @Operation(summary = "Export tasks as NDJSON", description = "Streams every task matching the author or assignee and date filters, one JSON object per line. Archived tasks are only included with includeArchived.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Tasks streamed successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid parameters"),
+            @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    @GetMapping(value = "/tasks/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportTasksNdjson(@RequestBody TasksRequest request) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(taskManagerService.exportTasks(request, ExportFormat.NDJSON));
+    }
+
+    @Operation(summary = "Export tasks as CSV", description = "Streams every task matching the author or assignee and date filters as CSV. Archived tasks are only included with includeArchived.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Tasks streamed successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid parameters"),
+            @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    @GetMapping(value = "/tasks/export", produces = "text/csv")
+    public ResponseEntity<StreamingResponseBody> exportTasksCsv(@RequestBody TasksRequest request) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("text/csv"))
+                .body(taskManagerService.exportTasks(request, ExportFormat.CSV));
+    }
 
-        return ResponseEntity.ok(taskManagerService.getTasksPaged(request));
+    @Operation(summary = "Subscribe to task events", description = "Opens a Server-Sent Events stream of changes to tasks the current user authored or is assigned to.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Event stream opened"),
+            @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    @GetMapping(value = "/tasks/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> subscribe(@AuthenticationPrincipal UserPrincipal principal) {
+        return ResponseEntity.ok(taskEventBroker.subscribe(principal.getId()));
     }
 
     @Operation(summary = "Delete a task", description = "Deletes the specified task from the system.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "204", description = "Task deleted successfully"),
             @ApiResponse(responseCode = "404", description = "Task not found"),
+            @ApiResponse(responseCode = "412", description = "Task changed since the If-Match ETag was read"),
             @ApiResponse(responseCode = "403", description = "Access denied")
     })
     @PostMapping("/task/{taskId}")
-    public ResponseEntity<Task> deleteTask(@PathVariable long taskId) {
-        taskManagerService.deleteTask(taskId);
+    public ResponseEntity<Void> deleteTask(@PathVariable long taskId,
+                                     @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        taskManagerService.deleteTask(taskId, TaskETags.expectedVersion(ifMatch));
         return ResponseEntity.ok().build();
     }
 
@@ -89,11 +251,36 @@ public class TaskController {
     @ApiResponses(value={
             @ApiResponse(responseCode="200", description="Status updated successfully"),
             @ApiResponse(responseCode="404", description="Task not found"),
+            @ApiResponse(responseCode="412", description="Task changed since the If-Match ETag was read"),
             @ApiResponse(responseCode="403", description="Access denied")
     })
     @PutMapping("/{id}/status")
-    public ResponseEntity<Task> changeTaskStatus(@PathVariable long id, @RequestBody TaskStatus newStatus) {
-        Task updatedTask = taskManagerService.changeTaskStatus(id, newStatus);
-        return ResponseEntity.ok(updatedTask);
+    public ResponseEntity<TaskResponse> changeTaskStatus(@PathVariable long id, @RequestBody TaskStatus newStatus,
+                                                         @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Task updatedTask = taskManagerService.changeTaskStatus(id, newStatus, TaskETags.expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(TaskETags.of(updatedTask.getVersion())).body(TaskResponse.of(updatedTask));
+    }
+
+    @Operation(summary = "Change status of many tasks", description = "Sets the status of the listed tasks, or of every task matching the filter, and returns the number of updated tasks.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Statuses updated successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid parameters"),
+            @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    @PutMapping("/tasks/status")
+    public ResponseEntity<BulkUpdateResponse> changeTasksStatus(@RequestBody BulkStatusRequest request) {
+        return ResponseEntity.ok(taskManagerService.changeTasksStatus(request));
+    }
+
+    @Operation(summary = "Assign a user to many tasks", description = "Assigns a user to the listed tasks, or to every task matching the filter, and returns the number of updated tasks.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Assignee set successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid parameters"),
+            @ApiResponse(responseCode = "404", description = "Assignee not found"),
+            @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    @PutMapping("/tasks/assignee")
+    public ResponseEntity<BulkUpdateResponse> setTasksAssignee(@RequestBody BulkAssigneeRequest request) {
+        return ResponseEntity.ok(taskManagerService.setTasksAssignee(request));
     }
 }
@@ -0,0 +1,75 @@
+package org.example.taskmanager.controller;
+
+import org.example.taskmanager.dto.TaskSummary;
+import org.example.taskmanager.dto.TasksSliceResponse;
+import org.example.taskmanager.exception.PreconditionFailedException;
+import org.springframework.data.domain.Page;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Entity tags for tasks. A task's tag is its version and is strong, so it can be used with If-Match.
+ * A list's tag digests the id and version of every task on it together with the paging state, since the summaries
+ * hold nothing that can change without a new version. List tags are only ever used with If-None-Match and are weak,
+ * because Tomcat will not compress a response that carries a strong tag.
+ */
+final class TaskETags {
+
+    private TaskETags() {
+    }
+
+    static String of(long version) {
+        return "\"" + version + "\"";
+    }
+
+    static String of(Page<TaskSummary> page) {
+        return digest(page.getContent(), page.getNumber() + ":" + page.getSize() + ":" + page.getTotalElements());
+    }
+
+    static String of(TasksSliceResponse<TaskSummary> slice) {
+        return digest(slice.content(), String.valueOf(slice.nextCursor()));
+    }
+
+    /**
+     * Version required by an {@code If-Match} header, or null when the header is absent or {@code *}.
+     * Anything that is not a single strong tag of this resource can never match.
+     */
+    static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() < 3 || tag.charAt(0) != '"' || tag.charAt(tag.length() - 1) != '"') {
+            throw new PreconditionFailedException("If-Match must be a single strong entity tag");
+        }
+        try {
+            return Long.parseLong(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new PreconditionFailedException("If-Match does not match the task");
+        }
+    }
+
+    private static String digest(List<TaskSummary> tasks, String paging) {
+        ByteBuffer buffer = ByteBuffer.allocate(tasks.size() * 2 * Long.BYTES);
+        for (TaskSummary task : tasks) {
+            buffer.putLong(task.id()).putLong(task.version());
+        }
+        MessageDigest sha256 = sha256();
+        sha256.update(buffer.array());
+        sha256.update(paging.getBytes(StandardCharsets.UTF_8));
+        return "W/\"" + HexFormat.of().formatHex(sha256.digest(), 0, 16) + "\"";
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
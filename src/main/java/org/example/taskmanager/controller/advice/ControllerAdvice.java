@@ -3,9 +3,15 @@ package org.example.taskmanager.controller.advice;
 import jakarta.validation.ConstraintViolationException;
 import lombok.RequiredArgsConstructor;
 import org.apache.commons.lang3.StringUtils;
+import org.example.taskmanager.exception.BatchTooLargeException;
 import org.example.taskmanager.exception.EntityNotFoundException;
 import org.example.taskmanager.exception.ErrorResponse;
 import org.example.taskmanager.exception.ExceptionMessage;
+import org.example.taskmanager.exception.InvalidCursorException;
+import org.example.taskmanager.exception.InvalidRequestException;
+import org.example.taskmanager.exception.PreconditionFailedException;
+import org.example.taskmanager.exception.ServiceBusyException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -34,6 +40,26 @@ public class ControllerAdvice {
         return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
     }
 
+    @ExceptionHandler({InvalidCursorException.class, BatchTooLargeException.class, InvalidRequestException.class})
+    public ResponseEntity<ErrorResponse> handleBadRequestException(Exception e, WebRequest request) {
+        ErrorResponse errorResponse = new ErrorResponse(e.getMessage(), HttpStatus.BAD_REQUEST, request);
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler({PreconditionFailedException.class})
+    public ResponseEntity<ErrorResponse> handlePreconditionFailedException(Exception e, WebRequest request) {
+        ErrorResponse errorResponse = new ErrorResponse(e.getMessage(), HttpStatus.PRECONDITION_FAILED, request);
+        return new ResponseEntity<>(errorResponse, HttpStatus.PRECONDITION_FAILED);
+    }
+
+    @ExceptionHandler({ServiceBusyException.class})
+    public ResponseEntity<ErrorResponse> handleServiceBusyException(Exception e, WebRequest request) {
+        ErrorResponse errorResponse = new ErrorResponse(e.getMessage(), HttpStatus.SERVICE_UNAVAILABLE, request);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(errorResponse);
+    }
+
     @ExceptionHandler({MethodArgumentNotValidException.class})
     public ResponseEntity<ErrorResponse> handleMethodException(MethodArgumentNotValidException e, WebRequest request) {
         List<FieldError> errors = e.getFieldErrors();
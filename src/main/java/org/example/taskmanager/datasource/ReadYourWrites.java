@@ -0,0 +1,29 @@
+package org.example.taskmanager.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+
+/**
+ * Users whose own transaction committed within the sticky window. Their reads go to the primary until the window
+ * passes, so they never read a replica that has not replayed their change yet.
+ */
+class ReadYourWrites {
+    private final Cache<Long, Boolean> recentWriters;
+
+    ReadYourWrites(Duration stickyWindow, long maxUsers) {
+        this.recentWriters = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterWrite(stickyWindow)
+                .build();
+    }
+
+    void wrote(long userId) {
+        recentWriters.put(userId, Boolean.TRUE);
+    }
+
+    boolean isPinned(long userId) {
+        return recentWriters.getIfPresent(userId) != null;
+    }
+}
@@ -0,0 +1,31 @@
+package org.example.taskmanager.datasource;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Read replicas used by {@link ReplicaRoutingDataSource}. The primary stays configured under {@code spring.datasource}.
+ *
+ * @param stickyWindow how long a user's reads stay on the primary after one of their own transactions committed
+ * @param maxLag       replay lag above which a replica is taken out of rotation until it catches up
+ */
+@ConfigurationProperties("datasource.replicas")
+public record ReplicaProperties(@DefaultValue("false") boolean enabled,
+                                @DefaultValue List<Node> nodes,
+                                @DefaultValue("5s") Duration stickyWindow,
+                                @DefaultValue("100000") long maxStickyUsers,
+                                @DefaultValue("5000") long healthCheckIntervalMs,
+                                @DefaultValue("2s") Duration healthCheckTimeout,
+                                @DefaultValue("10s") Duration maxLag) {
+
+    public record Node(String name,
+                       String url,
+                       String username,
+                       String password,
+                       @DefaultValue("10") int maximumPoolSize,
+                       @DefaultValue("2s") Duration connectionTimeout) {
+    }
+}
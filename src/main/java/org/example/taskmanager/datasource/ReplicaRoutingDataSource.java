@@ -0,0 +1,222 @@
+package org.example.taskmanager.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.example.taskmanager.security.UserPrincipal;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transactions to a healthy replica, round robin, and everything else to the primary: read-write
+ * transactions, work outside a transaction, and reads of a user who committed a change within the sticky window.
+ * <p>
+ * The routing key is taken when a connection is requested, so this must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}; otherwise the connection would be
+ * fetched when the transaction begins, before its read-only flag is visible.
+ * <p>
+ * Replicas are checked on a schedule and taken out of rotation while unreachable or lagging by more than
+ * {@code datasource.replicas.max-lag}. A replica that fails to hand out a connection is taken out at once and the
+ * read falls back to the primary. With no healthy replica every read goes to the primary.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+    private static final String PRIMARY = "primary";
+
+    // Zero on a standby that has replayed everything it received, so an idle primary does not look like lag.
+    // Null, counted as zero, on a server that is not a standby at all.
+    private static final String LAG_QUERY = """
+            select case when pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() then 0
+                        else extract(epoch from now() - pg_last_xact_replay_timestamp()) end""";
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final ReadYourWrites readYourWrites;
+    private final Duration healthCheckTimeout;
+    private final Duration maxLag;
+    private final AtomicInteger next = new AtomicInteger();
+    // Bound to a read-write transaction once its commit is tracked, so that further connection requests within the
+    // same transaction do not register the synchronization again.
+    private final Object writeTracking = new Object();
+
+    public ReplicaRoutingDataSource(DataSource primary,
+                                    Map<String, HikariDataSource> replicas,
+                                    ReplicaProperties properties,
+                                    MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replicas = replicas.entrySet().stream()
+                .map(e -> new Replica(e.getKey(), e.getValue()))
+                .toList();
+        this.readYourWrites = new ReadYourWrites(properties.stickyWindow(), properties.maxStickyUsers());
+        this.healthCheckTimeout = properties.healthCheckTimeout();
+        this.maxLag = properties.maxLag();
+
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+
+        for (Replica replica : this.replicas) {
+            Gauge.builder("datasource.replica.healthy", replica, r -> r.healthy ? 1 : 0)
+                    .tag("replica", replica.name)
+                    .register(meterRegistry);
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Replica replica = route();
+        if (replica == null) {
+            return primary.getConnection();
+        }
+        try {
+            return replica.pool.getConnection();
+        } catch (SQLException e) {
+            replica.down(e);
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Replica replica = route();
+        return replica != null ? replica.name : PRIMARY;
+    }
+
+    private Replica route() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return null;
+        }
+        Long userId = currentUserId();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (userId != null && !TransactionSynchronizationManager.hasResource(writeTracking)) {
+                TransactionSynchronizationManager.bindResource(writeTracking, userId);
+                TransactionSynchronizationManager.registerSynchronization(new WriteTracking(userId));
+            }
+            return null;
+        }
+        if (userId != null && readYourWrites.isPinned(userId)) {
+            return null;
+        }
+        return nextHealthyReplica();
+    }
+
+    private Replica nextHealthyReplica() {
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.healthy) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    private static Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.getPrincipal() instanceof UserPrincipal principal ?
+                principal.getId() : null;
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.replicas.health-check-interval-ms:5000}")
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            replica.check();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        replicas.forEach(replica -> replica.pool.close());
+    }
+
+    // Bound like a resource holder: released on completion, and set aside while the transaction is suspended so that
+    // an inner transaction tracks its own commit.
+    private final class WriteTracking implements TransactionSynchronization {
+        private final long userId;
+
+        private WriteTracking(long userId) {
+            this.userId = userId;
+        }
+
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResourceIfPossible(writeTracking);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(writeTracking, userId);
+        }
+
+        @Override
+        public void afterCommit() {
+            readYourWrites.wrote(userId);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(writeTracking);
+        }
+    }
+
+    private final class Replica {
+        private final String name;
+        private final HikariDataSource pool;
+        private volatile boolean healthy = true;
+
+        private Replica(String name, HikariDataSource pool) {
+            this.name = name;
+            this.pool = pool;
+        }
+
+        private void check() {
+            try (Connection connection = pool.getConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.setQueryTimeout((int) Math.max(1, healthCheckTimeout.toSeconds()));
+                try (ResultSet lag = statement.executeQuery(LAG_QUERY)) {
+                    lag.next();
+                    double lagSeconds = lag.getDouble(1);
+                    if (lagSeconds * 1000 > maxLag.toMillis()) {
+                        if (healthy) {
+                            log.warn("Replica {} is {} s behind the primary, routing its reads to the primary", name, lagSeconds);
+                        }
+                        healthy = false;
+                        return;
+                    }
+                }
+                if (!healthy) {
+                    log.info("Replica {} is back in rotation", name);
+                }
+                healthy = true;
+            } catch (SQLException e) {
+                down(e);
+            }
+        }
+
+        private void down(SQLException cause) {
+            if (healthy) {
+                log.warn("Replica {} is unavailable, routing its reads to the primary", name, cause);
+            }
+            healthy = false;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package org.example.taskmanager.dto;
+
+public record BatchTaskResult(int index, Long taskId, String error) {
+
+    public static BatchTaskResult created(int index, long taskId) {
+        return new BatchTaskResult(index, taskId, null);
+    }
+
+    public static BatchTaskResult failed(int index, String error) {
+        return new BatchTaskResult(index, null, error);
+    }
+
+    public boolean isCreated() {
+        return taskId != null;
+    }
+}
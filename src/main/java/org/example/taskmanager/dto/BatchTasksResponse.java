@@ -0,0 +1,11 @@
+package org.example.taskmanager.dto;
+
+import java.util.List;
+
+public record BatchTasksResponse(int created, int failed, List<BatchTaskResult> results) {
+
+    public static BatchTasksResponse of(List<BatchTaskResult> results) {
+        int created = (int) results.stream().filter(BatchTaskResult::isCreated).count();
+        return new BatchTasksResponse(created, results.size() - created, results);
+    }
+}
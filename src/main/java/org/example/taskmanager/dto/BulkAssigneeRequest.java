@@ -0,0 +1,14 @@
+package org.example.taskmanager.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class BulkAssigneeRequest {
+    private List<Long> taskIds;
+    private TasksRequest filter;
+    private long assigneeId;
+}
@@ -0,0 +1,15 @@
+package org.example.taskmanager.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.example.taskmanager.model.TaskStatus;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class BulkStatusRequest {
+    private List<Long> taskIds;
+    private TasksRequest filter;
+    private TaskStatus status;
+}
@@ -0,0 +1,24 @@
+package org.example.taskmanager.dto;
+
+import org.example.taskmanager.model.TaskPriority;
+import org.example.taskmanager.model.TaskStatus;
+
+/**
+ * A task selected by a bulk update, as it was before the update: enough to move its counters and to describe the
+ * change to subscribers.
+ */
+public record BulkTarget(long id,
+                         String title,
+                         TaskStatus status,
+                         TaskPriority priority,
+                         long author,
+                         long assignee) {
+
+    public BulkTarget withStatus(TaskStatus status) {
+        return new BulkTarget(id, title, status, priority, author, assignee);
+    }
+
+    public BulkTarget withAssignee(long assignee) {
+        return new BulkTarget(id, title, status, priority, author, assignee);
+    }
+}
@@ -0,0 +1,4 @@
+package org.example.taskmanager.dto;
+
+public record BulkUpdateResponse(int updated) {
+}
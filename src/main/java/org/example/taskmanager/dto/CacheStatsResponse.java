@@ -0,0 +1,10 @@
+package org.example.taskmanager.dto;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+public record CacheStatsResponse(long hits, long misses, long evictions, double hitRate) {
+
+    public static CacheStatsResponse of(CacheStats stats) {
+        return new CacheStatsResponse(stats.hitCount(), stats.missCount(), stats.evictionCount(), stats.hitRate());
+    }
+}
@@ -0,0 +1,13 @@
+package org.example.taskmanager.dto;
+
+import org.example.taskmanager.model.Comment;
+
+/**
+ * Wire shape of a comment, embedded in a {@link TaskResponse} or listed per task; either way the task id is implied.
+ */
+public record CommentResponse(long id, long author, String content) {
+
+    public static CommentResponse of(Comment comment) {
+        return new CommentResponse(comment.getId(), comment.getAuthor(), comment.getContent());
+    }
+}
@@ -0,0 +1,5 @@
+package org.example.taskmanager.dto;
+
+public enum ExportFormat {
+    NDJSON, CSV
+}
@@ -0,0 +1,16 @@
+package org.example.taskmanager.dto;
+
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+
+/**
+ * Wire shape of a page that is read without counting the total, the page-number counterpart of
+ * {@link TasksSliceResponse}. Serializing a {@link Slice} directly would expose its internal structure.
+ */
+public record SliceResponse<T>(List<T> content, int page, int size, boolean hasNext) {
+
+    public static <T> SliceResponse<T> of(Slice<T> slice) {
+        return new SliceResponse<>(slice.getContent(), slice.getNumber(), slice.getSize(), slice.hasNext());
+    }
+}
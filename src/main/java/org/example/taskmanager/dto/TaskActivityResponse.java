@@ -0,0 +1,24 @@
+package org.example.taskmanager.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.example.taskmanager.model.TaskActivity;
+
+import java.time.Instant;
+
+/**
+ * Wire shape of a task history entry; the task id is implied by the request. Values are left out when the change
+ * has none, such as for a comment.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record TaskActivityResponse(long id,
+                                   TaskEventType type,
+                                   Long actor,
+                                   String oldValue,
+                                   String newValue,
+                                   Instant occurredAt) {
+
+    public static TaskActivityResponse of(TaskActivity activity) {
+        return new TaskActivityResponse(activity.getId(), activity.getType(), activity.getActor(),
+                activity.getOldValue(), activity.getNewValue(), activity.getOccurredAt());
+    }
+}
@@ -0,0 +1,7 @@
+package org.example.taskmanager.dto;
+
+import org.example.taskmanager.model.TaskPriority;
+import org.example.taskmanager.model.TaskStatus;
+
+public record TaskCount(long assignee, TaskStatus status, TaskPriority priority, long count) {
+}
@@ -0,0 +1,6 @@
+package org.example.taskmanager.dto;
+
+import java.util.Map;
+
+public record TaskCountersResponse(long assignee, Map<String, Map<String, Long>> counts) {
+}
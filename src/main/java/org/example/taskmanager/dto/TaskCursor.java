@@ -0,0 +1,37 @@
+package org.example.taskmanager.dto;
+
+import org.example.taskmanager.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+
+/**
+ * Position in the (creation_date desc, id desc) ordering of tasks, serialized as an opaque string.
+ */
+public record TaskCursor(LocalDate creationDate, long id) {
+
+    public static TaskCursor first(LocalDate to) {
+        return new TaskCursor(to, Long.MAX_VALUE);
+    }
+
+    public static TaskCursor after(TaskSummary task) {
+        return new TaskCursor(task.creationDate(), task.id());
+    }
+
+    public String encode() {
+        String raw = creationDate.toEpochDay() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TaskCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            return new TaskCursor(LocalDate.ofEpochDay(Long.parseLong(raw.substring(0, separator))),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new InvalidCursorException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package org.example.taskmanager.dto;
+
+import org.example.taskmanager.model.Task;
+import org.example.taskmanager.model.TaskPriority;
+import org.example.taskmanager.model.TaskStatus;
+
+public record TaskEvent(TaskEventType type, long taskId, String title, TaskStatus status, TaskPriority priority,
+                        long author, long assignee, Long commentId) {
+
+    public static TaskEvent of(TaskEventType type, Task task) {
+        return of(type, task, null);
+    }
+
+    public static TaskEvent of(TaskEventType type, Task task, Long commentId) {
+        return new TaskEvent(type, task.getId(), task.getTitle(), task.getStatus(), task.getPriority(),
+                task.getAuthor(), task.getAssignee(), commentId);
+    }
+
+    public static TaskEvent of(TaskEventType type, BulkTarget task) {
+        return new TaskEvent(type, task.id(), task.title(), task.status(), task.priority(),
+                task.author(), task.assignee(), null);
+    }
+}
@@ -0,0 +1,5 @@
+package org.example.taskmanager.dto;
+
+public enum TaskEventType {
+    CREATED, STATUS_CHANGED, ASSIGNED, COMMENTED, DELETED
+}
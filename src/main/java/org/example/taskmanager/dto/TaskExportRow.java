@@ -0,0 +1,16 @@
+package org.example.taskmanager.dto;
+
+import org.example.taskmanager.model.TaskPriority;
+import org.example.taskmanager.model.TaskStatus;
+
+import java.time.LocalDate;
+
+public record TaskExportRow(Long id,
+                            String title,
+                            String description,
+                            TaskStatus status,
+                            TaskPriority priority,
+                            long author,
+                            long assignee,
+                            LocalDate creationDate) {
+}
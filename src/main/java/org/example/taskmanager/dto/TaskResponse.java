@@ -0,0 +1,40 @@
+package org.example.taskmanager.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.example.taskmanager.model.Task;
+import org.example.taskmanager.model.TaskPriority;
+import org.example.taskmanager.model.TaskStatus;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Wire shape of a single task. Optional fields are left out when empty; comments are only present on reads
+ * that fetched them, so serializing a response never triggers a lazy load.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record TaskResponse(long id,
+                           String title,
+                           String description,
+                           TaskStatus status,
+                           TaskPriority priority,
+                           long author,
+                           long assignee,
+                           LocalDate creationDate,
+                           long version,
+                           List<CommentResponse> comments) {
+
+    public static TaskResponse of(Task task) {
+        return of(task, null);
+    }
+
+    public static TaskResponse withComments(Task task) {
+        return of(task, task.getComments().stream().map(CommentResponse::of).toList());
+    }
+
+    private static TaskResponse of(Task task, List<CommentResponse> comments) {
+        return new TaskResponse(task.getId(), task.getTitle(), task.getDescription(), task.getStatus(),
+                task.getPriority(), task.getAuthor(), task.getAssignee(), task.getCreationDate(), task.getVersion(),
+                comments);
+    }
+}
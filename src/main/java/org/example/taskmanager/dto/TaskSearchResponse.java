@@ -0,0 +1,6 @@
+package org.example.taskmanager.dto;
+
+import java.util.List;
+
+public record TaskSearchResponse(List<TaskSearchHit> hits, boolean hasNext) {
+}
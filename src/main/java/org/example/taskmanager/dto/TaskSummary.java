@@ -0,0 +1,20 @@
+package org.example.taskmanager.dto;
+
+import org.example.taskmanager.model.TaskPriority;
+import org.example.taskmanager.model.TaskStatus;
+
+import java.time.LocalDate;
+
+/**
+ * List view of a task: scalar columns plus the number of comments, without the comments themselves.
+ */
+public record TaskSummary(Long id,
+                          String title,
+                          TaskStatus status,
+                          TaskPriority priority,
+                          long author,
+                          long assignee,
+                          LocalDate creationDate,
+                          long commentCount,
+                          long version) {
+}
@@ -4,6 +4,7 @@ import lombok.Getter;
 import lombok.Setter;
 
 import java.time.LocalDate;
+import java.util.List;
 
 @Getter
 @Setter
@@ -14,4 +15,11 @@ public class TasksRequest {
     private LocalDate to;
     private int offset;
     private int pageSize;
+    private String cursor;
+    private boolean includeArchived;
+
+    // A list rather than a flag, so that Postgres can prune the archive partition when it is not asked for.
+    public List<Boolean> archivedStates() {
+        return includeArchived ? List.of(false, true) : List.of(false);
+    }
 }
@@ -0,0 +1,6 @@
+package org.example.taskmanager.dto;
+
+import java.util.List;
+
+public record TasksSliceResponse<T>(List<T> content, String nextCursor, boolean hasNext) {
+}
@@ -0,0 +1,5 @@
+package org.example.taskmanager.exception;
+
+public class BatchTooLargeException extends RuntimeException{
+    public BatchTooLargeException(String message) {super(message);}
+}
@@ -0,0 +1,5 @@
+package org.example.taskmanager.exception;
+
+public class InvalidCursorException extends RuntimeException{
+    public InvalidCursorException(String message) {super(message);}
+}
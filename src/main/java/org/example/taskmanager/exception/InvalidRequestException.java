@@ -0,0 +1,5 @@
+package org.example.taskmanager.exception;
+
+public class InvalidRequestException extends RuntimeException{
+    public InvalidRequestException(String message) {super(message);}
+}
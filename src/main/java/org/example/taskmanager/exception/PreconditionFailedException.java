@@ -0,0 +1,5 @@
+package org.example.taskmanager.exception;
+
+public class PreconditionFailedException extends RuntimeException{
+    public PreconditionFailedException(String message) {super(message);}
+}
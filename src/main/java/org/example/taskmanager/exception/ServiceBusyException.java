@@ -0,0 +1,5 @@
+package org.example.taskmanager.exception;
+
+public class ServiceBusyException extends RuntimeException{
+    public ServiceBusyException(String message) {super(message);}
+}
@@ -0,0 +1,32 @@
+package org.example.taskmanager.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.Immutable;
+
+import java.time.Instant;
+
+/**
+ * Change to the searchable text of a task or, when {@code commentId} is set, of one of its comments. Rows are written
+ * by database triggers in the transaction that made the change.
+ */
+@Entity
+@Table(name = "search_changes")
+@Immutable
+@AllArgsConstructor
+@NoArgsConstructor
+@ToString
+@Getter
+public class SearchChange {
+    @Id
+    private Long id;
+    private long xid;
+    private long taskId;
+    private Long commentId;
+    private Instant changedAt;
+}
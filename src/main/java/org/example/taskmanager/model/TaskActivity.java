@@ -0,0 +1,46 @@
+package org.example.taskmanager.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.example.taskmanager.dto.TaskEventType;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "task_activity")
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@ToString
+@EqualsAndHashCode
+@Getter
+@Setter
+public class TaskActivity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_activity_seq")
+    @SequenceGenerator(name = "task_activity_seq", sequenceName = "task_activity_seq", allocationSize = 50)
+    private Long id;
+
+    private long taskId;
+
+    @Enumerated(EnumType.STRING)
+    private TaskEventType type;
+
+    private Long actor;
+    private String oldValue;
+    private String newValue;
+    private Instant occurredAt;
+}
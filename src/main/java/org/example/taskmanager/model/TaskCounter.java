@@ -0,0 +1,29 @@
+package org.example.taskmanager.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Number of tasks per assignee, status and priority, maintained together with the task writes.
+ */
+@Entity
+@Table(name = "task_counters")
+@AllArgsConstructor
+@NoArgsConstructor
+@ToString
+@Getter
+@Setter
+public class TaskCounter {
+    @EmbeddedId
+    private TaskCounterId id;
+
+    @Column(name = "task_count")
+    private long taskCount;
+}
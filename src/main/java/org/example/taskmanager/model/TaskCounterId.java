@@ -0,0 +1,53 @@
+package org.example.taskmanager.model;
+
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.io.Serializable;
+import java.util.Comparator;
+
+/**
+ * Counter key. Missing statuses and priorities are stored as {@link #NONE}.
+ */
+@Embeddable
+@AllArgsConstructor
+@NoArgsConstructor
+@ToString
+@EqualsAndHashCode
+@Getter
+@Setter
+public class TaskCounterId implements Serializable, Comparable<TaskCounterId> {
+    public static final String NONE = "NONE";
+
+    private static final Comparator<TaskCounterId> ORDER = Comparator.comparingLong(TaskCounterId::getAssignee)
+            .thenComparing(TaskCounterId::getStatus)
+            .thenComparing(TaskCounterId::getPriority);
+
+    private long assignee;
+    private String status;
+    private String priority;
+
+    public static TaskCounterId of(long assignee, TaskStatus status, TaskPriority priority) {
+        return new TaskCounterId(assignee,
+                status != null ? status.name() : NONE,
+                priority != null ? priority.name() : NONE);
+    }
+
+    public TaskCounterId withStatus(TaskStatus status) {
+        return new TaskCounterId(assignee, status != null ? status.name() : NONE, priority);
+    }
+
+    public TaskCounterId withAssignee(long assignee) {
+        return new TaskCounterId(assignee, status, priority);
+    }
+
+    @Override
+    public int compareTo(TaskCounterId other) {
+        return ORDER.compare(this, other);
+    }
+}
@@ -1,7 +1,32 @@
 package org.example.taskmanager.repository;
 
+import jakarta.persistence.QueryHint;
 import org.example.taskmanager.model.Comment;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.stream.Stream;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
+
+    Slice<Comment> findAllByTaskIdOrderByIdAsc(Long taskId, Pageable pageable);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new org.example.taskmanager.model.Comment(c.id, c.content, c.taskId, c.author) from Comment c order by c.id")
+    Stream<Comment> streamAllForIndex();
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "comments"))
+    @Query(value = "update comments set archived = true where task_id in :taskIds and archived = false", nativeQuery = true)
+    int archiveByTaskIds(@Param("taskIds") Collection<Long> taskIds);
 }
@@ -0,0 +1,24 @@
+package org.example.taskmanager.repository;
+
+import org.example.taskmanager.model.SearchChange;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface SearchChangeRepository extends JpaRepository<SearchChange, Long> {
+
+    // Every transaction with a lower id has ended, so all changes it wrote are visible to later statements.
+    @Query(value = "SELECT txid_snapshot_xmin(txid_current_snapshot())", nativeQuery = true)
+    long currentHorizon();
+
+    @Query("select c from SearchChange c where c.xid >= :from and c.xid < :to order by c.id")
+    List<SearchChange> findAllBetween(@Param("from") long from, @Param("to") long to);
+
+    @Modifying
+    @Query("delete from SearchChange c where c.changedAt < :before")
+    int deleteAllChangedBefore(@Param("before") Instant before);
+}
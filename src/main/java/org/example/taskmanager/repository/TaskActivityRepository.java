@@ -0,0 +1,11 @@
+package org.example.taskmanager.repository;
+
+import org.example.taskmanager.model.TaskActivity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface TaskActivityRepository extends JpaRepository<TaskActivity, Long> {
+
+    Slice<TaskActivity> findAllByTaskIdOrderByIdDesc(long taskId, Pageable pageable);
+}
@@ -0,0 +1,36 @@
+package org.example.taskmanager.repository;
+
+import jakarta.persistence.QueryHint;
+import org.example.taskmanager.model.TaskCounter;
+import org.example.taskmanager.model.TaskCounterId;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface TaskCounterRepository extends JpaRepository<TaskCounter, TaskCounterId> {
+
+    List<TaskCounter> findAllByIdAssignee(long assignee);
+
+    // Held until the calling transaction ends; false when another instance holds it.
+    @Query(value = "SELECT pg_try_advisory_xact_lock(hashtext('task_counters_reconcile'))", nativeQuery = true)
+    boolean tryReconcileLock();
+
+    // Without the query space Hibernate would evict every second-level cache region after this native statement.
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "task_counters"))
+    @Query(value = "INSERT INTO task_counters (assignee, status, priority, task_count) " +
+            "VALUES (:assignee, :status, :priority, 0) ON CONFLICT DO NOTHING", nativeQuery = true)
+    void insertIfAbsent(@Param("assignee") long assignee, @Param("status") String status,
+                        @Param("priority") String priority);
+
+    @Modifying
+    @Query("update TaskCounter c set c.taskCount = c.taskCount + :delta " +
+            "where c.id.assignee = :assignee and c.id.status = :status and c.id.priority = :priority")
+    int add(@Param("assignee") long assignee, @Param("status") String status,
+            @Param("priority") String priority, @Param("delta") long delta);
+}
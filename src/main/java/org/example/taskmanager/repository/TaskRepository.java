@@ -1,15 +1,186 @@
 package org.example.taskmanager.repository;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.example.taskmanager.dto.TaskCount;
+import org.example.taskmanager.dto.TaskExportRow;
+import org.example.taskmanager.dto.TaskSummary;
 import org.example.taskmanager.model.Task;
+import org.example.taskmanager.model.TaskStatus;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 public interface TaskRepository extends JpaRepository<Task, Long> {
 
-    Page<Task> findAllByAuthorAndCreationDateBetween(long author, LocalDate creationDate, LocalDate creationDate2, Pageable pageable);
+    String SUMMARY_SELECT = "select new org.example.taskmanager.dto.TaskSummary(" +
+            "t.id, t.title, t.status, t.priority, t.author, t.assignee, t.creationDate, " +
+            "(select count(c) from Comment c where c.taskId = t.id), t.version) from Task t ";
 
-    Page<Task> findAllByAssigneeAndCreationDateBetween(long assignee, LocalDate from, LocalDate to, Pageable pageable);
+    String EXPORT_SELECT = "select new org.example.taskmanager.dto.TaskExportRow(" +
+            "t.id, t.title, t.description, t.status, t.priority, t.author, t.assignee, t.creationDate) from Task t ";
+
+    String COUNT_SELECT = "select new org.example.taskmanager.dto.TaskCount(" +
+            "t.assignee, t.status, t.priority, count(t)) from Task t ";
+
+    String COUNT_GROUP_BY = " group by t.assignee, t.status, t.priority";
+
+    // Bulk updates are one statement each: the CTE locks the matching rows in id order, so that concurrent bulk
+    // updates over overlapping tasks cannot deadlock, and keeps the values the update replaces for RETURNING. Rows
+    // are id, title, old status, priority, author and old assignee.
+    String BULK_BY_IDS = "with old as (select id, archived, creation_date, status, assignee from tasks " +
+            "where id in :ids order by id for update) ";
+    String BULK_BY_AUTHOR = "with old as (select id, archived, creation_date, status, assignee from tasks " +
+            "where author = :author and creation_date between :from and :to and archived in :archived order by id for update) ";
+    String BULK_BY_ASSIGNEE = "with old as (select id, archived, creation_date, status, assignee from tasks " +
+            "where assignee = :assignee and creation_date between :from and :to and archived in :archived order by id for update) ";
+    String BULK_SET_STATUS = "update tasks t set status = :status, version = t.version + 1 ";
+    String BULK_SET_ASSIGNEE = "update tasks t set assignee = :newAssignee, version = t.version + 1 ";
+    String BULK_RETURNING = "from old where t.id = old.id and t.archived = old.archived and t.creation_date = old.creation_date " +
+            "returning t.id, t.title, old.status, t.priority, t.author, old.assignee";
+
+    @EntityGraph(attributePaths = "comments")
+    Optional<Task> findWithCommentsById(long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select t from Task t where t.id = :id")
+    Optional<Task> findForUpdateById(@Param("id") long id);
+
+    // A query rather than findById, so the version is read from the row and not from the second-level cache.
+    @Query("select t from Task t where t.id = :id")
+    Optional<Task> findCurrentById(@Param("id") long id);
+
+    // Bumps the version for changes that alter the task's representation without touching its columns. A plain
+    // update rather than a locking read: the row lock is only taken by the update itself, and returning the version
+    // saves reading it back. Bypasses the second-level cache, so callers evict the task.
+    @Query(value = "update tasks set version = version + 1 where id = :id returning version", nativeQuery = true)
+    Optional<Long> incrementVersion(@Param("id") long id);
+
+    @Query("select t.version from Task t where t.id = :id")
+    Optional<Long> findVersionById(@Param("id") long id);
+
+    @Query(value = SUMMARY_SELECT + "where t.author = :author and t.creationDate between :from and :to and t.archived in :archived",
+            countQuery = "select count(t) from Task t where t.author = :author and t.creationDate between :from and :to " +
+                    "and t.archived in :archived")
+    Page<TaskSummary> findAuthorSummaries(@Param("author") long author, @Param("from") LocalDate from,
+                                          @Param("to") LocalDate to, @Param("archived") Collection<Boolean> archived,
+                                          Pageable pageable);
+
+    @Query(value = SUMMARY_SELECT + "where t.assignee = :assignee and t.creationDate between :from and :to and t.archived in :archived",
+            countQuery = "select count(t) from Task t where t.assignee = :assignee and t.creationDate between :from and :to " +
+                    "and t.archived in :archived")
+    Page<TaskSummary> findAssigneeSummaries(@Param("assignee") long assignee, @Param("from") LocalDate from,
+                                            @Param("to") LocalDate to, @Param("archived") Collection<Boolean> archived,
+                                            Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "where t.author = :author and t.creationDate >= :from and t.archived in :archived " +
+            "and (t.creationDate < :cursorDate or (t.creationDate = :cursorDate and t.id < :cursorId)) " +
+            "order by t.creationDate desc, t.id desc")
+    Slice<TaskSummary> findAuthorSlice(@Param("author") long author, @Param("from") LocalDate from,
+                                       @Param("cursorDate") LocalDate cursorDate, @Param("cursorId") long cursorId,
+                                       @Param("archived") Collection<Boolean> archived, Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "where t.assignee = :assignee and t.creationDate >= :from and t.archived in :archived " +
+            "and (t.creationDate < :cursorDate or (t.creationDate = :cursorDate and t.id < :cursorId)) " +
+            "order by t.creationDate desc, t.id desc")
+    Slice<TaskSummary> findAssigneeSlice(@Param("assignee") long assignee, @Param("from") LocalDate from,
+                                         @Param("cursorDate") LocalDate cursorDate, @Param("cursorId") long cursorId,
+                                         @Param("archived") Collection<Boolean> archived, Pageable pageable);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(EXPORT_SELECT + "where t.author = :author and t.creationDate between :from and :to and t.archived in :archived " +
+            "order by t.creationDate desc, t.id desc")
+    Stream<TaskExportRow> streamByAuthor(@Param("author") long author, @Param("from") LocalDate from,
+                                         @Param("to") LocalDate to, @Param("archived") Collection<Boolean> archived);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(EXPORT_SELECT + "where t.assignee = :assignee and t.creationDate between :from and :to and t.archived in :archived " +
+            "order by t.creationDate desc, t.id desc")
+    Stream<TaskExportRow> streamByAssignee(@Param("assignee") long assignee, @Param("from") LocalDate from,
+                                           @Param("to") LocalDate to, @Param("archived") Collection<Boolean> archived);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(EXPORT_SELECT + "order by t.id")
+    Stream<TaskExportRow> streamAllForIndex();
+
+    @Query(EXPORT_SELECT + "where t.id in :ids")
+    List<TaskExportRow> findExportRowsByIds(@Param("ids") Collection<Long> ids);
+
+    @Query(SUMMARY_SELECT + "where t.id in :ids")
+    List<TaskSummary> findSummariesByIds(@Param("ids") Collection<Long> ids);
+
+    @Query("select t.id from Task t where t.id in :ids and (t.author = :userId or t.assignee = :userId)")
+    Set<Long> findIdsVisibleTo(@Param("ids") Collection<Long> ids, @Param("userId") long userId);
+
+    @Query(COUNT_SELECT + COUNT_GROUP_BY)
+    List<TaskCount> countAllGrouped();
+
+    // Not @Modifying, so that the returned rows are read; the caller evicts the tasks cache region afterwards.
+    @Query(value = BULK_BY_IDS + BULK_SET_STATUS + BULK_RETURNING, nativeQuery = true)
+    List<Object[]> updateStatusByIds(@Param("ids") Collection<Long> ids, @Param("status") String status);
+
+    @Query(value = BULK_BY_AUTHOR + BULK_SET_STATUS + BULK_RETURNING, nativeQuery = true)
+    List<Object[]> updateStatusByAuthor(@Param("author") long author, @Param("from") LocalDate from,
+                                        @Param("to") LocalDate to, @Param("archived") Collection<Boolean> archived,
+                                        @Param("status") String status);
+
+    @Query(value = BULK_BY_ASSIGNEE + BULK_SET_STATUS + BULK_RETURNING, nativeQuery = true)
+    List<Object[]> updateStatusByAssignee(@Param("assignee") long assignee, @Param("from") LocalDate from,
+                                          @Param("to") LocalDate to, @Param("archived") Collection<Boolean> archived,
+                                          @Param("status") String status);
+
+    @Query(value = BULK_BY_IDS + BULK_SET_ASSIGNEE + BULK_RETURNING, nativeQuery = true)
+    List<Object[]> updateAssigneeByIds(@Param("ids") Collection<Long> ids, @Param("newAssignee") long newAssignee);
+
+    @Query(value = BULK_BY_AUTHOR + BULK_SET_ASSIGNEE + BULK_RETURNING, nativeQuery = true)
+    List<Object[]> updateAssigneeByAuthor(@Param("author") long author, @Param("from") LocalDate from,
+                                          @Param("to") LocalDate to, @Param("archived") Collection<Boolean> archived,
+                                          @Param("newAssignee") long newAssignee);
+
+    @Query(value = BULK_BY_ASSIGNEE + BULK_SET_ASSIGNEE + BULK_RETURNING, nativeQuery = true)
+    List<Object[]> updateAssigneeByAssignee(@Param("assignee") long assignee, @Param("from") LocalDate from,
+                                            @Param("to") LocalDate to, @Param("archived") Collection<Boolean> archived,
+                                            @Param("newAssignee") long newAssignee);
+
+    // Skips rows locked by a concurrent writer; they are picked up by a later run.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select t.id from Task t where t.archived = false and t.status = :status and t.creationDate < :before " +
+            "order by t.creationDate, t.id")
+    List<Long> findArchivableIds(@Param("status") TaskStatus status, @Param("before") LocalDate before, Pageable pageable);
+
+    // Native, since the flag is not writable through the entity; the query space limits second-level cache
+    // invalidation to tasks.
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "tasks"))
+    @Query(value = "update tasks set archived = true where id in :ids and archived = false", nativeQuery = true)
+    int archiveByIds(@Param("ids") Collection<Long> ids);
+
+    @Query(value = "select create_task_partitions(cast(localtimestamp as timestamp), " +
+            "cast(localtimestamp + make_interval(months => :monthsAhead) as timestamp))", nativeQuery = true)
+    int createPartitions(@Param("monthsAhead") int monthsAhead);
 }
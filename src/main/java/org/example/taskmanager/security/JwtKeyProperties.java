@@ -0,0 +1,22 @@
+package org.example.taskmanager.security;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Token signing keys read by {@link JwtKeyRing}, either listed inline or kept in a JSON file holding an array of
+ * the same entries. Secrets are base64 encoded and at least 256 bits long.
+ */
+@ConfigurationProperties("jwt.keys")
+public record JwtKeyProperties(String file,
+                               @DefaultValue List<Key> entries) {
+
+    /**
+     * @param activeFrom when the key starts signing new tokens; until then it is only accepted for verification
+     */
+    public record Key(String id, String secret, Instant activeFrom) {
+    }
+}
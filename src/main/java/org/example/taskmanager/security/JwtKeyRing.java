@@ -0,0 +1,120 @@
+package org.example.taskmanager.security;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keys used to sign and verify tokens, identified by the {@code kid} header.
+ * <p>
+ * Every key in the ring is accepted for verification, and new tokens are signed with the key whose
+ * {@code activeFrom} is the latest one already reached. Since the ring depends only on configuration and the clock,
+ * all instances given the same keys sign and verify alike without talking to each other. A rotation is rolled out by
+ * adding the next key with a future {@code activeFrom} everywhere, and the previous key is removed once the tokens it
+ * signed have expired. The key file is re-read periodically, so neither step needs a restart.
+ * <p>
+ * Without any configured key a random one is generated, which only suits a single instance in development.
+ */
+@Slf4j
+@Component
+public class JwtKeyRing {
+    private final JwtKeyProperties properties;
+    private final ObjectMapper objectMapper;
+    private final List<JwtKeyProperties.Key> ephemeralKeys;
+    private volatile Snapshot snapshot;
+
+    public JwtKeyRing(JwtKeyProperties properties, ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        if (properties.entries().isEmpty() && !hasFile()) {
+            log.warn("No JWT signing keys configured, using a random key; tokens will not survive a restart or work on other instances");
+            this.ephemeralKeys = List.of(new JwtKeyProperties.Key("ephemeral",
+                    Base64.getEncoder().encodeToString(Jwts.SIG.HS256.key().build().getEncoded()), null));
+        } else {
+            this.ephemeralKeys = List.of();
+        }
+        this.snapshot = load();
+    }
+
+    public SigningKey signingKey() {
+        return snapshot.signingKey();
+    }
+
+    /**
+     * @return the verification key with the given id, or null if it is not in the ring
+     */
+    public SecretKey verificationKey(String keyId) {
+        return keyId != null ? snapshot.keys().get(keyId) : null;
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.keys.reload-interval-ms:60000}")
+    public void reload() {
+        try {
+            snapshot = load();
+        } catch (RuntimeException e) {
+            log.error("Reloading JWT keys failed, keeping the previous key ring", e);
+        }
+    }
+
+    private Snapshot load() {
+        List<JwtKeyProperties.Key> entries = new ArrayList<>(ephemeralKeys);
+        entries.addAll(properties.entries());
+        if (hasFile()) {
+            entries.addAll(readFile(Path.of(properties.file())));
+        }
+
+        Map<String, SecretKey> keys = new LinkedHashMap<>();
+        for (JwtKeyProperties.Key entry : entries) {
+            // A repeated id would make tokens verify against whichever secret came last.
+            if (keys.put(entry.id(), Keys.hmacShaKeyFor(Base64.getDecoder().decode(entry.secret()))) != null) {
+                throw new IllegalStateException("JWT key id " + entry.id() + " is configured more than once");
+            }
+        }
+
+        Instant now = Instant.now();
+        JwtKeyProperties.Key active = entries.stream()
+                .filter(entry -> entry.activeFrom() == null || !entry.activeFrom().isAfter(now))
+                .max(Comparator.comparing(entry -> entry.activeFrom() != null ? entry.activeFrom() : Instant.EPOCH))
+                .orElseThrow(() -> new IllegalStateException("None of the configured JWT keys is active yet"));
+
+        Snapshot previous = snapshot;
+        if (previous == null || !previous.signingKey().id().equals(active.id())) {
+            log.info("Signing tokens with key {}", active.id());
+        }
+        return new Snapshot(new SigningKey(active.id(), keys.get(active.id())), Map.copyOf(keys));
+    }
+
+    private boolean hasFile() {
+        return properties.file() != null && !properties.file().isBlank();
+    }
+
+    private List<JwtKeyProperties.Key> readFile(Path file) {
+        try {
+            return objectMapper.readValue(file.toFile(), new TypeReference<>() {
+            });
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read JWT keys from " + file, e);
+        }
+    }
+
+    public record SigningKey(String id, SecretKey key) {
+    }
+
+    private record Snapshot(SigningKey signingKey, Map<String, SecretKey> keys) {
+    }
+}
@@ -0,0 +1,179 @@
+package org.example.taskmanager.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.example.taskmanager.exception.ErrorResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs after {@link JwtFilter} and protects the API in two steps. First a token bucket per principal and endpoint
+ * rule rejects clients that exceed their rate with 429. Then a global concurrency limit sheds requests with 503 once
+ * too many are in flight, before they can queue on the connection pool. Both responses carry Retry-After.
+ * <p>
+ * A request that goes async keeps its permit until the async processing completes. Server-Sent Events streams are
+ * exempt from the concurrency limit, as they would hold a permit for as long as the client stays connected.
+ * <p>
+ * Unauthenticated requests are limited per remote address. Buckets are dropped after being idle for a while.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+    private final RateLimitProperties properties;
+    private final ObjectMapper objectMapper;
+    private final List<Rule> rules;
+    private final Rule defaultRule;
+    private final List<PathPattern> concurrencyExempt;
+    private final Cache<String, TokenBucket> buckets;
+    private final Semaphore inFlight;
+    private final Counter admitted;
+    private final Counter throttled;
+    private final Counter shed;
+
+    public RateLimitFilter(RateLimitProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.rules = properties.endpoints().stream()
+                .map(endpoint -> new Rule(endpoint.method() + " " + endpoint.pattern(), endpoint.method(),
+                        PathPatternParser.defaultInstance.parse(endpoint.pattern()), endpoint.limit()))
+                .toList();
+        this.defaultRule = new Rule("default", null, null, properties.defaultLimit());
+        this.concurrencyExempt = properties.concurrencyExempt().stream()
+                .map(PathPatternParser.defaultInstance::parse)
+                .toList();
+        this.buckets = Caffeine.newBuilder()
+                .expireAfterAccess(properties.bucketIdleTimeout())
+                .maximumSize(properties.maxBuckets())
+                .build();
+        this.inFlight = new Semaphore(properties.maxConcurrentRequests());
+        this.admitted = requests(meterRegistry, "admitted");
+        this.throttled = requests(meterRegistry, "throttled");
+        this.shed = requests(meterRegistry, "shed");
+        meterRegistry.gauge("rate-limit.buckets", buckets, Cache::estimatedSize);
+        meterRegistry.gauge("rate-limit.in-flight", inFlight,
+                semaphore -> properties.maxConcurrentRequests() - semaphore.availablePermits());
+    }
+
+    private static Counter requests(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("rate-limit.requests").tag("outcome", outcome).register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.enabled() || !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        Rule rule = matchRule(request);
+        TokenBucket bucket = buckets.get(rule.name() + '|' + clientKey(request), key -> new TokenBucket(rule.limit()));
+        long waitNanos = bucket.tryConsume(System.nanoTime());
+        if (waitNanos > 0) {
+            throttled.increment();
+            reject(request, response, HttpStatus.TOO_MANY_REQUESTS, "Too many requests",
+                    Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1)));
+            return;
+        }
+
+        if (isConcurrencyExempt(request)) {
+            admitted.increment();
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (!inFlight.tryAcquire()) {
+            shed.increment();
+            reject(request, response, HttpStatus.SERVICE_UNAVAILABLE, "Server is busy, try again later", 1);
+            return;
+        }
+        boolean async = false;
+        try {
+            admitted.increment();
+            filterChain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleaseOnComplete());
+                async = true;
+            }
+        } finally {
+            if (!async) {
+                inFlight.release();
+            }
+        }
+    }
+
+    private boolean isConcurrencyExempt(HttpServletRequest request) {
+        PathContainer path = PathContainer.parsePath(request.getRequestURI());
+        return concurrencyExempt.stream().anyMatch(pattern -> pattern.matches(path));
+    }
+
+    // Called once per async request, also after a timeout or an error.
+    private class ReleaseOnComplete implements AsyncListener {
+        @Override
+        public void onComplete(AsyncEvent event) {
+            inFlight.release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+
+    private Rule matchRule(HttpServletRequest request) {
+        PathContainer path = PathContainer.parsePath(request.getRequestURI());
+        for (Rule rule : rules) {
+            if ((rule.method() == null || rule.method().matches(request.getMethod())) && rule.pattern().matches(path)) {
+                return rule;
+            }
+        }
+        return defaultRule;
+    }
+
+    private static String clientKey(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated() ?
+                "user:" + authentication.getName() :
+                "addr:" + request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, HttpStatus status, String message,
+                        long retryAfterSeconds) throws IOException {
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ErrorResponse(message, status, new ServletWebRequest(request)));
+    }
+
+    private record Rule(String name, HttpMethod method, PathPattern pattern, RateLimitProperties.Limit limit) {
+    }
+}
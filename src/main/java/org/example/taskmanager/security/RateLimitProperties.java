@@ -0,0 +1,38 @@
+package org.example.taskmanager.security;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.http.HttpMethod;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Request limits applied by {@link RateLimitFilter}. Endpoint rules are matched in order against the request method
+ * and path; requests matching none of them share the default limit. Long-lived streams matching
+ * {@code concurrencyExempt} are rate limited but hold no concurrency permit, since they stay open indefinitely.
+ */
+@Validated
+@ConfigurationProperties("rate-limit")
+public record RateLimitProperties(@DefaultValue("true") boolean enabled,
+                                  @DefaultValue @Valid Limit defaultLimit,
+                                  @DefaultValue List<@Valid Endpoint> endpoints,
+                                  @DefaultValue("10m") Duration bucketIdleTimeout,
+                                  @DefaultValue("100000") long maxBuckets,
+                                  @DefaultValue("100") @Positive int maxConcurrentRequests,
+                                  @DefaultValue("/api/tasks/events") List<String> concurrencyExempt) {
+
+    // A bucket that never refills would lock its clients out for good once drained.
+    public record Limit(@DefaultValue("100") @Positive long capacity,
+                        @DefaultValue("50") @Positive double refillPerSecond) {
+    }
+
+    public record Endpoint(HttpMethod method, String pattern, @Positive long capacity, @Positive double refillPerSecond) {
+        public Limit limit() {
+            return new Limit(capacity, refillPerSecond);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package org.example.taskmanager.security;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket, implemented as the generic cell rate algorithm: the whole state is the theoretical
+ * arrival time of the next request, advanced by one emission interval per admitted request.
+ */
+final class TokenBucket {
+    private final long emissionIntervalNanos;
+    private final long burstNanos;
+    private final AtomicLong theoreticalArrival = new AtomicLong(Long.MIN_VALUE);
+
+    TokenBucket(RateLimitProperties.Limit limit) {
+        this.emissionIntervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / limit.refillPerSecond());
+        this.burstNanos = emissionIntervalNanos * limit.capacity();
+    }
+
+    /**
+     * Takes a token if one is available.
+     *
+     * @return 0 if the request is admitted, otherwise the nanoseconds until the next token
+     */
+    long tryConsume(long nowNanos) {
+        while (true) {
+            long current = theoreticalArrival.get();
+            long next = (current == Long.MIN_VALUE || current - nowNanos < 0 ? nowNanos : current) + emissionIntervalNanos;
+            long waitNanos = next - burstNanos - nowNanos;
+            if (waitNanos > 0) {
+                return waitNanos;
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
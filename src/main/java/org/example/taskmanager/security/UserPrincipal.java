@@ -13,6 +13,10 @@ import java.util.Collections;
 public class UserPrincipal implements UserDetails {
     private final User user;
 
+    public long getId() {
+        return user.getId();
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return Collections.singleton(new SimpleGrantedAuthority("USER"));
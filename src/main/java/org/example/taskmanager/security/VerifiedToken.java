@@ -0,0 +1,17 @@
+package org.example.taskmanager.security;
+
+import java.util.Date;
+
+/**
+ * Result of a single signature check and claims parse of a bearer token.
+ */
+public record VerifiedToken(String username, Date expiration, String keyId) {
+
+    public boolean isExpired() {
+        return expiration.before(new Date());
+    }
+
+    public long millisUntilExpiration() {
+        return Math.max(0, expiration.getTime() - System.currentTimeMillis());
+    }
+}
@@ -5,37 +5,50 @@ import org.example.taskmanager.dto.NewUserRequest;
 import org.example.taskmanager.model.Role;
 import org.example.taskmanager.model.User;
 import org.example.taskmanager.repository.UserRepository;
+import org.example.taskmanager.security.PasswordHashingExecutor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
 @Service
 @RequiredArgsConstructor
 public class AuthenticationService {
     private final UserRepository userRepository;
-    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
     private final JWTService jwtService;
+    private final UserCache userCache;
+    private final PasswordHashingExecutor passwordHashingExecutor;
+    // Database work after hashing, kept off the bounded hashing pool so that a slow insert does not hold a hashing thread.
+    private final Executor afterHashing = Executors.newVirtualThreadPerTaskExecutor();
 
-    public String register(NewUserRequest request) {
-        User user = new User();
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
-        user.setUserRole(Role.USER);
-        user.setUsername(request.getUsername());
-        user.setEmail(request.getEmail());
-        userRepository.save(user);
-        return "User registered successfully";
+    public CompletableFuture<String> register(NewUserRequest request) {
+        return passwordHashingExecutor.submit(() -> passwordEncoder.encode(request.getPassword()))
+                .thenApplyAsync(encodedPassword -> {
+                    User user = new User();
+                    user.setPassword(encodedPassword);
+                    user.setUserRole(Role.USER);
+                    user.setUsername(request.getUsername());
+                    user.setEmail(request.getEmail());
+                    userRepository.save(user);
+                    // Cached right away so that logging in next does not depend on a replica having the new row yet.
+                    userCache.put(user);
+                    return "User registered successfully";
+                }, afterHashing);
     }
 
-    public String login(NewUserRequest loginRequest) {
-        Authentication authentication =
-                authenticationManager.authenticate(
-                        new UsernamePasswordAuthenticationToken(loginRequest.getUsername(), loginRequest.getPassword()));
-        if (authentication.isAuthenticated()) {
-            return jwtService.generateToken(loginRequest.getUsername());
-        }
-        return "Failed to login";
+    // Authentication checks the password and, if its hash uses an outdated cost, rehashes it, so all of it runs on
+    // the hashing pool.
+    public CompletableFuture<String> login(NewUserRequest loginRequest) {
+        return passwordHashingExecutor.submit(() -> authenticationManager.authenticate(
+                        new UsernamePasswordAuthenticationToken(loginRequest.getUsername(), loginRequest.getPassword())))
+                .thenApply(authentication -> authentication.isAuthenticated() ?
+                        jwtService.generateToken(loginRequest.getUsername()) :
+                        "Failed to login");
     }
 }
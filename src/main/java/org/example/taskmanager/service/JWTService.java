@@ -1,74 +1,124 @@
 package org.example.taskmanager.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.example.taskmanager.security.JwtKeyRing;
+import org.example.taskmanager.security.VerifiedToken;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
-import javax.crypto.KeyGenerator;
 import javax.crypto.SecretKey;
-import java.security.NoSuchAlgorithmException;
-import java.util.Base64;
+import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.function.Function;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class JWTService {
-    private final String secret;
+    private final JwtKeyRing keyRing;
+    private final JwtParser parser;
+    private final Cache<String, VerifiedToken> verifiedTokens;
+    private final boolean cacheEnabled;
+    private final Timer parseTimer;
+    private final Timer validateTimer;
 
-    public JWTService() {
-        try {
-            KeyGenerator keyGen = KeyGenerator.getInstance("HmacSHA256");
-            SecretKey sk = keyGen.generateKey();
-            secret = Base64.getEncoder().encodeToString(sk.getEncoded());
-        } catch (NoSuchAlgorithmException e) {
-            throw new RuntimeException(e);
-        }
+    public JWTService(JwtKeyRing keyRing,
+                      @Value("${jwt.verified-cache.max-size:10000}") long verifiedCacheMaxSize,
+                      MeterRegistry meterRegistry) {
+        this.keyRing = keyRing;
+        // One parser for all keys; the key is picked by the kid header from the current ring snapshot.
+        parser = Jwts.parser().keyLocator(new LocatorAdapter<>() {
+            @Override
+            protected Key locate(JwsHeader header) {
+                SecretKey key = keyRing.verificationKey(header.getKeyId());
+                if (key == null) {
+                    throw new UnsupportedJwtException("Unknown signing key " + header.getKeyId());
+                }
+                return key;
+            }
+        }).build();
+        cacheEnabled = verifiedCacheMaxSize > 0;
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheMaxSize)
+                .expireAfter(new TokenExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "jwt.verified-tokens");
+        parseTimer = Timer.builder("jwt.parse")
+                .description("Signature check and claims parsing of tokens missing from the verified-token cache")
+                .register(meterRegistry);
+        validateTimer = Timer.builder("jwt.validate").register(meterRegistry);
     }
 
     public String generateToken(String username) {
         Map<String, Object> claims = new HashMap<>();
-        return Jwts.builder().claims()
+        JwtKeyRing.SigningKey signingKey = keyRing.signingKey();
+        return Jwts.builder().header().keyId(signingKey.id()).and().claims()
                 .add(claims)
                 .subject(username)
                 .issuedAt(new Date(System.currentTimeMillis()))
-                .expiration(new Date(System.currentTimeMillis() + 1000 * 60 * 15)).and().signWith(getKey()).compact();
+                .expiration(new Date(System.currentTimeMillis() + 1000 * 60 * 15)).and().signWith(signingKey.key()).compact();
     }
 
-    private SecretKey getKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secret);
-        return Keys.hmacShaKeyFor(keyBytes);
+    /**
+     * Verifies the signature and parses the claims once; tokens seen before are served
+     * from the cache until they expire, so repeated requests skip the HMAC check.
+     * A cache size of 0 disables caching. Cached tokens whose key has left the ring are verified again, and fail.
+     */
+    public VerifiedToken verify(String jwtToken) {
+        VerifiedToken verified = cacheEnabled ? verifiedTokens.getIfPresent(jwtToken) : null;
+        if (verified != null && keyRing.verificationKey(verified.keyId()) != null) {
+            return verified;
+        }
+        Jws<Claims> jws = parseTimer.record(() -> parser.parseSignedClaims(jwtToken));
+        Claims claims = jws.getPayload();
+        verified = new VerifiedToken(claims.getSubject(), claims.getExpiration(), jws.getHeader().getKeyId());
+        if (cacheEnabled) {
+            verifiedTokens.put(jwtToken, verified);
+        }
+        return verified;
     }
 
     public String extractUsername(String jwtToken) {
-        return extractClaim(jwtToken, Claims::getSubject);
-    }
-
-    private <T> T extractClaim(String jwtToken, Function<Claims, T> claimsResolver) {
-        Claims claims = extractAllClaims(jwtToken);
-        return claimsResolver.apply(claims);
+        return verify(jwtToken).username();
     }
 
-    private Claims extractAllClaims(String jwtToken) {
-        return Jwts.parser()
-                .verifyWith(getKey()).build()
-                .parseSignedClaims(jwtToken).getPayload();
+    public boolean validateToken(VerifiedToken token, UserDetails userDetails) {
+        return Boolean.TRUE.equals(validateTimer.record(
+                () -> token.username().equals(userDetails.getUsername()) && !token.isExpired()));
     }
 
     public boolean validateToken(String jwtToken, UserDetails userDetails) {
-        String username = extractUsername(jwtToken);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(jwtToken));
+        return validateToken(verify(jwtToken), userDetails);
     }
 
-    private boolean isTokenExpired(String jwtToken) {
-        return extractExpiration(jwtToken).before(new Date());
-    }
+    private static class TokenExpiry implements Expiry<String, VerifiedToken> {
+        @Override
+        public long expireAfterCreate(String token, VerifiedToken verified, long currentTime) {
+            return TimeUnit.MILLISECONDS.toNanos(verified.millisUntilExpiration());
+        }
 
-    private Date extractExpiration(String jwtToken) {
-        return extractClaim(jwtToken, Claims::getExpiration);
+        @Override
+        public long expireAfterUpdate(String token, VerifiedToken verified, long currentTime, long currentDuration) {
+            return expireAfterCreate(token, verified, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String token, VerifiedToken verified, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
 }
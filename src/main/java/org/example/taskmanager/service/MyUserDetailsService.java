@@ -2,24 +2,39 @@ package org.example.taskmanager.service;
 
 import lombok.RequiredArgsConstructor;
 import org.example.taskmanager.model.User;
-import org.example.taskmanager.security.UserPrincipal;
 import org.example.taskmanager.repository.UserRepository;
+import org.example.taskmanager.security.UserPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @RequiredArgsConstructor
-public class MyUserDetailsService implements UserDetailsService {
+public class MyUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
+    private final UserCache userCache;
     private final UserRepository userRepository;
 
     @Override
+    @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByUsername(username);
+        return userCache.findByUsername(username)
+                .map(UserPrincipal::new)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+    }
+
+    // Called after a successful login whose stored hash uses a lower cost than the configured one.
+    @Override
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        User user = userRepository.findByUsername(userDetails.getUsername());
         if (user == null) {
             throw new UsernameNotFoundException("User not found");
         }
+        user.setPassword(newPassword);
+        userRepository.save(user);
+        userCache.evict(user);
         return new UserPrincipal(user);
     }
 }
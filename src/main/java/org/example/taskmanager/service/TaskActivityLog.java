@@ -0,0 +1,141 @@
+package org.example.taskmanager.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+import org.example.taskmanager.model.TaskActivity;
+import org.example.taskmanager.repository.TaskActivityRepository;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind log of task activity. Callers only enqueue; a single background writer collects entries for up to
+ * the flush interval and persists them with one batched insert, so a mutation does not pay for its audit row.
+ * <p>
+ * When the queue is full callers wait up to the offer timeout before the entry is dropped and counted. Entries still
+ * queued at shutdown are flushed before the application context closes.
+ */
+@Slf4j
+@Component
+public class TaskActivityLog implements DisposableBean {
+    private final TaskActivityRepository taskActivityRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<TaskActivity> queue;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final long offerTimeoutMs;
+    private final long shutdownTimeoutMs;
+    private final Thread writer;
+    private final Counter written;
+    private final Counter dropped;
+    private final Counter failed;
+    private volatile boolean stopping;
+
+    public TaskActivityLog(TaskActivityRepository taskActivityRepository,
+                           PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry,
+                           @Value("${tasks.activity.queue-capacity:10000}") int queueCapacity,
+                           @Value("${tasks.activity.batch-size:500}") int batchSize,
+                           @Value("${tasks.activity.flush-interval-ms:1000}") long flushIntervalMs,
+                           @Value("${tasks.activity.offer-timeout-ms:100}") long offerTimeoutMs,
+                           @Value("${tasks.activity.shutdown-timeout-ms:10000}") long shutdownTimeoutMs) {
+        this.taskActivityRepository = taskActivityRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.offerTimeoutMs = offerTimeoutMs;
+        this.shutdownTimeoutMs = shutdownTimeoutMs;
+        this.written = meterRegistry.counter("tasks.activity.written");
+        this.dropped = meterRegistry.counter("tasks.activity.dropped");
+        this.failed = meterRegistry.counter("tasks.activity.failed");
+        meterRegistry.gaugeCollectionSize("tasks.activity.queued", Tags.empty(), queue);
+        this.writer = Thread.ofPlatform().name("task-activity-writer").daemon().start(this::run);
+    }
+
+    public void record(TaskActivity activity) {
+        try {
+            if (!stopping && queue.offer(activity, offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        dropped.increment();
+        log.warn("Task activity log is full, dropped {}", activity);
+    }
+
+    public Slice<TaskActivity> getHistory(long taskId, int page, int pageSize) {
+        return taskActivityRepository.findAllByTaskIdOrderByIdDesc(taskId, PageRequest.of(page, pageSize));
+    }
+
+    private void run() {
+        List<TaskActivity> batch = new ArrayList<>(batchSize);
+        while (!stopping || !queue.isEmpty()) {
+            try {
+                collect(batch);
+            } catch (InterruptedException e) {
+                stopping = true;
+            }
+            flush(batch);
+            batch.clear();
+        }
+    }
+
+    // Waits for the first entry, then keeps collecting until the batch is full or the flush interval has passed.
+    private void collect(List<TaskActivity> batch) throws InterruptedException {
+        TaskActivity first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        while (batch.size() < batchSize && !stopping) {
+            queue.drainTo(batch, batchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= batchSize || remaining <= 0) {
+                return;
+            }
+            TaskActivity next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+        queue.drainTo(batch, batchSize - batch.size());
+    }
+
+    private void flush(List<TaskActivity> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> taskActivityRepository.saveAll(batch));
+            written.increment(batch.size());
+        } catch (RuntimeException e) {
+            failed.increment(batch.size());
+            log.error("Writing {} task activity entries failed", batch.size(), e);
+        }
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        stopping = true;
+        writer.join(shutdownTimeoutMs + flushIntervalMs);
+        if (writer.isAlive()) {
+            log.warn("Task activity writer did not finish within {} ms, {} entries lost", shutdownTimeoutMs, queue.size());
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package org.example.taskmanager.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.example.taskmanager.model.TaskStatus;
+import org.example.taskmanager.repository.CommentRepository;
+import org.example.taskmanager.repository.TaskRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Maintains the partitions of the tasks table. Monthly partitions for live tasks are created
+ * {@code tasks.partitions.months-ahead} months in advance, so inserts never fall into the default partition.
+ * Completed tasks older than {@code tasks.archive.after-days} are moved, with their comments, to the archive
+ * partitions in batches of one transaction each; list queries skip them unless archived tasks are asked for.
+ * <p>
+ * Counters, the search index and the version cache are left alone: an archived task still exists and can still be
+ * read and changed by id.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "tasks.archive.enabled", havingValue = "true", matchIfMissing = true)
+public class TaskArchiver {
+    private final TaskRepository taskRepository;
+    private final CommentRepository commentRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int monthsAhead;
+    private final int afterDays;
+    private final int batchSize;
+    private final Counter archived;
+
+    public TaskArchiver(TaskRepository taskRepository,
+                        CommentRepository commentRepository,
+                        PlatformTransactionManager transactionManager,
+                        MeterRegistry meterRegistry,
+                        @Value("${tasks.partitions.months-ahead:3}") int monthsAhead,
+                        @Value("${tasks.archive.after-days:180}") int afterDays,
+                        @Value("${tasks.archive.batch-size:1000}") int batchSize) {
+        this.taskRepository = taskRepository;
+        this.commentRepository = commentRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.monthsAhead = monthsAhead;
+        this.afterDays = afterDays;
+        this.batchSize = batchSize;
+        this.archived = meterRegistry.counter("tasks.archived");
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${tasks.partitions.interval-ms:86400000}")
+    public void createPartitions() {
+        Integer created = transactionTemplate.execute(status -> taskRepository.createPartitions(monthsAhead));
+        if (created != null && created > 0) {
+            log.info("Created {} task partitions", created);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${tasks.archive.interval-ms:3600000}",
+            fixedDelayString = "${tasks.archive.interval-ms:3600000}")
+    public void archive() {
+        LocalDate before = LocalDate.now().minusDays(afterDays);
+        long total = 0;
+        int moved;
+        do {
+            moved = transactionTemplate.execute(status -> archiveBatch(before));
+            total += moved;
+        } while (moved == batchSize);
+        if (total > 0) {
+            archived.increment(total);
+            log.info("Archived {} completed tasks created before {}", total, before);
+        }
+    }
+
+    private int archiveBatch(LocalDate before) {
+        List<Long> ids = taskRepository.findArchivableIds(TaskStatus.COMPLETED, before, PageRequest.ofSize(batchSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        commentRepository.archiveByTaskIds(ids);
+        return taskRepository.archiveByIds(ids);
+    }
+}
@@ -0,0 +1,140 @@
+package org.example.taskmanager.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.taskmanager.dto.TaskCount;
+import org.example.taskmanager.dto.TaskCountersResponse;
+import org.example.taskmanager.model.Task;
+import org.example.taskmanager.model.TaskCounter;
+import org.example.taskmanager.model.TaskCounterId;
+import org.example.taskmanager.repository.TaskCounterRepository;
+import org.example.taskmanager.repository.TaskRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the task_counters summary table in step with the tasks table. Every mutating method must run inside the
+ * transaction that writes the tasks, so the counters commit or roll back together with them.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TaskCounterService {
+    private final TaskCounterRepository taskCounterRepository;
+    private final TaskRepository taskRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public void added(Task task) {
+        apply(Map.of(key(task), 1L));
+    }
+
+    public void removed(Task task) {
+        apply(Map.of(key(task), -1L));
+    }
+
+    public void moved(TaskCounterId from, TaskCounterId to) {
+        if (!from.equals(to)) {
+            apply(Map.of(from, -1L, to, 1L));
+        }
+    }
+
+    public void addedAll(List<Task> tasks) {
+        apply(tasks.stream().collect(Collectors.groupingBy(TaskCounterService::key, Collectors.counting())));
+    }
+
+    /**
+     * Moves the pre-counted groups from their current key to the key produced by {@code change}.
+     */
+    public void movedAll(List<TaskCount> counts, UnaryOperator<TaskCounterId> change) {
+        Map<TaskCounterId, Long> deltas = new HashMap<>();
+        for (TaskCount count : counts) {
+            TaskCounterId from = TaskCounterId.of(count.assignee(), count.status(), count.priority());
+            deltas.merge(from, -count.count(), Long::sum);
+            deltas.merge(change.apply(from), count.count(), Long::sum);
+        }
+        apply(deltas);
+    }
+
+    public static TaskCounterId key(Task task) {
+        return TaskCounterId.of(task.getAssignee(), task.getStatus(), task.getPriority());
+    }
+
+    // Rows are always touched in key order so that two transactions moving counts in opposite directions cannot deadlock.
+    private void apply(Map<TaskCounterId, Long> deltas) {
+        new TreeMap<>(deltas).forEach((id, delta) -> {
+            if (delta != 0) {
+                taskCounterRepository.insertIfAbsent(id.getAssignee(), id.getStatus(), id.getPriority());
+                taskCounterRepository.add(id.getAssignee(), id.getStatus(), id.getPriority(), delta);
+            }
+        });
+    }
+
+    public List<TaskCountersResponse> getCounters(Long assigneeId) {
+        List<TaskCounter> counters = assigneeId != null ?
+                taskCounterRepository.findAllByIdAssignee(assigneeId) :
+                taskCounterRepository.findAll();
+
+        Map<Long, Map<String, Map<String, Long>>> byAssignee = new TreeMap<>();
+        for (TaskCounter counter : counters) {
+            if (counter.getTaskCount() == 0) {
+                continue;
+            }
+            TaskCounterId id = counter.getId();
+            byAssignee.computeIfAbsent(id.getAssignee(), a -> new TreeMap<>())
+                    .computeIfAbsent(id.getStatus(), s -> new TreeMap<>())
+                    .put(id.getPriority(), counter.getTaskCount());
+        }
+        return byAssignee.entrySet().stream()
+                .map(e -> new TaskCountersResponse(e.getKey(), e.getValue()))
+                .toList();
+    }
+
+    /**
+     * Recounts the tasks table and repairs counters that drifted, e.g. after bulk updates racing with other writers.
+     * Both sides are read from one snapshot; the repair is applied as relative deltas so that writes committed in
+     * the meantime are preserved. Every instance schedules this, so an advisory lock held by an enclosing primary
+     * transaction until the repair has committed lets only one of them measure and apply it; the others skip the run.
+     */
+    @Scheduled(initialDelayString = "${tasks.counters.reconcile-interval-ms:3600000}",
+            fixedDelayString = "${tasks.counters.reconcile-interval-ms:3600000}")
+    public void reconcile() {
+        transactionTemplate.executeWithoutResult(lock -> {
+            if (!taskCounterRepository.tryReconcileLock()) {
+                log.debug("Counter reconciliation is running on another instance");
+                return;
+            }
+            // Not read-only: the drift must be measured on the primary, not on a replica that may lag behind it.
+            TransactionTemplate snapshot = new TransactionTemplate(transactionTemplate.getTransactionManager());
+            snapshot.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+            snapshot.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+
+            Map<TaskCounterId, Long> drift = snapshot.execute(status -> {
+                Map<TaskCounterId, Long> deltas = new HashMap<>();
+                for (TaskCount count : taskRepository.countAllGrouped()) {
+                    deltas.merge(TaskCounterId.of(count.assignee(), count.status(), count.priority()), count.count(), Long::sum);
+                }
+                for (TaskCounter counter : taskCounterRepository.findAll()) {
+                    deltas.merge(counter.getId(), -counter.getTaskCount(), Long::sum);
+                }
+                deltas.values().removeIf(delta -> delta == 0);
+                return deltas;
+            });
+
+            if (!drift.isEmpty()) {
+                log.warn("Repairing {} drifted task counters", drift.size());
+                TransactionTemplate repair = new TransactionTemplate(transactionTemplate.getTransactionManager());
+                repair.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+                repair.executeWithoutResult(status -> apply(drift));
+            }
+        });
+    }
+}
@@ -0,0 +1,224 @@
+package org.example.taskmanager.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.example.taskmanager.dto.TaskEvent;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+/**
+ * In-process fan-out of task events to Server-Sent Events subscribers.
+ * <p>
+ * Connections are held by the servlet container in async mode, so an idle subscriber costs no thread. Each
+ * subscriber has a bounded queue of pre-rendered frames drained on a virtual thread; publishers only enqueue and
+ * never write to a socket, and a socket that stops accepting data only blocks its own drain. A subscriber whose queue
+ * overflows, or whose send has not finished within the send timeout, is considered too slow and is disconnected, the
+ * client is expected to reconnect and refetch. Heartbeats keep idle connections open through proxies and reveal dead
+ * ones.
+ */
+@Slf4j
+@Component
+public class TaskEventBroker implements DisposableBean {
+    private static final int DRAIN_BATCH = 64;
+
+    private static final Set<DataWithMediaType> HEARTBEAT = SseEmitter.event().comment("heartbeat").build();
+
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final AtomicLong sequence = new AtomicLong();
+    private final ObjectMapper objectMapper;
+    private final ExecutorService sender;
+    private final int bufferSize;
+    private final long timeoutMs;
+    private final long sendTimeoutNanos;
+    private final Counter published;
+    private final Counter evicted;
+
+    public TaskEventBroker(ObjectMapper objectMapper,
+                           MeterRegistry meterRegistry,
+                           @Value("${tasks.events.buffer-size:256}") int bufferSize,
+                           @Value("${tasks.events.timeout-ms:1800000}") long timeoutMs,
+                           @Value("${tasks.events.send-timeout-ms:10000}") long sendTimeoutMs) {
+        this.objectMapper = objectMapper;
+        this.bufferSize = bufferSize;
+        this.timeoutMs = timeoutMs;
+        this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+        this.sender = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("task-events-", 0).factory());
+        this.published = meterRegistry.counter("tasks.events.published");
+        this.evicted = meterRegistry.counter("tasks.events.evicted");
+        meterRegistry.gauge("tasks.events.subscribers", subscriberCount);
+    }
+
+    public SseEmitter subscribe(long userId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(userId, emitter, new ArrayBlockingQueue<>(bufferSize));
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+
+        // Added inside the map's atomic section, so that a concurrent remove cannot drop the set it is added to.
+        subscribers.compute(userId, (id, userSubscribers) -> {
+            Set<Subscriber> set = userSubscribers != null ? userSubscribers : ConcurrentHashMap.<Subscriber>newKeySet();
+            set.add(subscriber);
+            return set;
+        });
+        subscriberCount.incrementAndGet();
+        return emitter;
+    }
+
+    /**
+     * Sends the event to every open subscription of the given users. The frame is rendered once and shared.
+     */
+    public void publish(TaskEvent event, long... recipients) {
+        Set<DataWithMediaType> frame = SseEmitter.event()
+                .id(Long.toString(sequence.incrementAndGet()))
+                .name(event.type().name())
+                .data(toJson(event))
+                .build();
+        published.increment();
+        for (long recipient : LongStream.of(recipients).distinct().toArray()) {
+            Set<Subscriber> userSubscribers = subscribers.get(recipient);
+            if (userSubscribers != null) {
+                userSubscribers.forEach(subscriber -> enqueue(subscriber, frame));
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${tasks.events.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        subscribers.values().forEach(userSubscribers -> userSubscribers.forEach(subscriber -> enqueue(subscriber, HEARTBEAT)));
+    }
+
+    // A send blocked on a socket cannot be interrupted, so the subscriber is dropped and its drain left to fail once
+    // the container gives up on the connection.
+    @Scheduled(fixedDelayString = "${tasks.events.send-timeout-check-interval-ms:1000}")
+    public void evictStalledSends() {
+        long now = System.nanoTime();
+        subscribers.values().forEach(userSubscribers -> userSubscribers.forEach(subscriber -> {
+            long since = subscriber.sendingSince;
+            if (since != 0 && now - since > sendTimeoutNanos) {
+                evicted.increment();
+                log.debug("Disconnecting stalled task event subscriber of user {}", subscriber.userId);
+                remove(subscriber);
+            }
+        }));
+    }
+
+    public int subscriberCount() {
+        return subscriberCount.get();
+    }
+
+    private String toJson(TaskEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void enqueue(Subscriber subscriber, Set<DataWithMediaType> frame) {
+        if (subscriber.closed.get()) {
+            return;
+        }
+        if (!subscriber.queue.offer(frame)) {
+            evicted.increment();
+            log.debug("Disconnecting slow task event subscriber of user {}", subscriber.userId);
+            close(subscriber);
+            return;
+        }
+        scheduleDrain(subscriber);
+    }
+
+    private void scheduleDrain(Subscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            sender.execute(() -> drain(subscriber));
+        }
+    }
+
+    // Only one drain per subscriber runs at a time, so frames go out in order and emitter calls never contend.
+    private void drain(Subscriber subscriber) {
+        try {
+            for (int i = 0; i < DRAIN_BATCH && !subscriber.closed.get(); i++) {
+                Set<DataWithMediaType> frame = subscriber.queue.poll();
+                if (frame == null) {
+                    break;
+                }
+                subscriber.sendingSince = System.nanoTime();
+                subscriber.emitter.send(frame);
+                subscriber.sendingSince = 0;
+            }
+        } catch (IOException | IllegalStateException e) {
+            remove(subscriber);
+        } finally {
+            subscriber.sendingSince = 0;
+            subscriber.draining.set(false);
+        }
+
+        if (subscriber.closed.get()) {
+            subscriber.queue.clear();
+            subscriber.emitter.complete();
+        } else if (!subscriber.queue.isEmpty()) {
+            scheduleDrain(subscriber);
+        }
+    }
+
+    // Completing the emitter may block behind a send in progress, so it is left to the subscriber's drain.
+    private void close(Subscriber subscriber) {
+        remove(subscriber);
+        scheduleDrain(subscriber);
+    }
+
+    private void remove(Subscriber subscriber) {
+        if (subscriber.closed.compareAndSet(false, true)) {
+            subscriberCount.decrementAndGet();
+            subscribers.computeIfPresent(subscriber.userId, (id, userSubscribers) -> {
+                userSubscribers.remove(subscriber);
+                return userSubscribers.isEmpty() ? null : userSubscribers;
+            });
+        }
+    }
+
+    @Override
+    public void destroy() {
+        sender.shutdownNow();
+        subscribers.values().forEach(userSubscribers -> userSubscribers.forEach(subscriber -> subscriber.emitter.complete()));
+    }
+
+    private static final class Subscriber {
+        private final long userId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Set<DataWithMediaType>> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        // System.nanoTime() when the send in progress started, 0 when none is.
+        private volatile long sendingSince;
+
+        private Subscriber(long userId, SseEmitter emitter, BlockingQueue<Set<DataWithMediaType>> queue) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.queue = queue;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package org.example.taskmanager.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import org.example.taskmanager.dto.TaskExportRow;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes export rows one by one to the response stream, so nothing but the current row is held in memory.
+ */
+public interface TaskExportWriter extends Closeable {
+
+    void write(TaskExportRow row) throws IOException;
+
+    static TaskExportWriter ndjson(ObjectMapper objectMapper, OutputStream outputStream) throws IOException {
+        SequenceWriter writer = objectMapper.writer()
+                .withRootValueSeparator("\n")
+                .writeValues(outputStream);
+        return new TaskExportWriter() {
+            @Override
+            public void write(TaskExportRow row) throws IOException {
+                writer.write(row);
+            }
+
+            @Override
+            public void close() throws IOException {
+                writer.close();
+            }
+        };
+    }
+
+    static TaskExportWriter csv(OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        writer.write("id,title,description,status,priority,author,assignee,creationDate\n");
+        return new TaskExportWriter() {
+            @Override
+            public void write(TaskExportRow row) throws IOException {
+                writer.write(String.valueOf(row.id()));
+                writer.write(',');
+                writer.write(escape(row.title()));
+                writer.write(',');
+                writer.write(escape(row.description()));
+                writer.write(',');
+                writer.write(row.status() != null ? row.status().name() : "");
+                writer.write(',');
+                writer.write(row.priority() != null ? row.priority().name() : "");
+                writer.write(',');
+                writer.write(String.valueOf(row.author()));
+                writer.write(',');
+                writer.write(String.valueOf(row.assignee()));
+                writer.write(',');
+                writer.write(row.creationDate() != null ? row.creationDate().toString() : "");
+                writer.write('\n');
+            }
+
+            @Override
+            public void close() throws IOException {
+                writer.close();
+            }
+        };
+    }
+
+    private static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
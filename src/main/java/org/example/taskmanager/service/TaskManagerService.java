@@ -1,35 +1,98 @@
 package org.example.taskmanager.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.persistence.EntityManagerFactory;
 import lombok.RequiredArgsConstructor;
+import org.example.taskmanager.dto.BatchTaskResult;
+import org.example.taskmanager.dto.BatchTasksResponse;
+import org.example.taskmanager.dto.BulkAssigneeRequest;
+import org.example.taskmanager.dto.BulkStatusRequest;
+import org.example.taskmanager.dto.BulkTarget;
+import org.example.taskmanager.dto.BulkUpdateResponse;
+import org.example.taskmanager.dto.CommentResponse;
+import org.example.taskmanager.dto.ExportFormat;
 import org.example.taskmanager.dto.NewCommentRequest;
 import org.example.taskmanager.dto.NewTaskRequest;
+import org.example.taskmanager.dto.TaskActivityResponse;
+import org.example.taskmanager.dto.TaskCount;
+import org.example.taskmanager.dto.TaskCursor;
+import org.example.taskmanager.dto.TaskEvent;
+import org.example.taskmanager.dto.TaskEventType;
+import org.example.taskmanager.dto.TaskExportRow;
+import org.example.taskmanager.dto.TaskSearchHit;
+import org.example.taskmanager.dto.TaskSearchResponse;
+import org.example.taskmanager.dto.TaskSummary;
 import org.example.taskmanager.dto.TasksRequest;
+import org.example.taskmanager.dto.TasksSliceResponse;
+import org.example.taskmanager.exception.BatchTooLargeException;
 import org.example.taskmanager.exception.EntityNotFoundException;
+import org.example.taskmanager.exception.InvalidRequestException;
+import org.example.taskmanager.exception.PreconditionFailedException;
 import org.example.taskmanager.model.Comment;
 import org.example.taskmanager.model.Task;
+import org.example.taskmanager.model.TaskActivity;
+import org.example.taskmanager.model.TaskCounterId;
+import org.example.taskmanager.model.TaskPriority;
 import org.example.taskmanager.model.TaskStatus;
 import org.example.taskmanager.model.User;
 import org.example.taskmanager.repository.CommentRepository;
 import org.example.taskmanager.repository.TaskRepository;
-import org.example.taskmanager.repository.UserRepository;
+import org.example.taskmanager.security.UserPrincipal;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class TaskManagerService {
     private final TaskRepository taskRepository;
     private final CommentRepository commentRepository;
-    private final UserRepository userRepository;
+    private final UserCache userCache;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ObjectMapper objectMapper;
+    private final TaskSearchIndex taskSearchIndex;
+    private final TaskCounterService taskCounterService;
+    private final TaskEventBroker taskEventBroker;
+    private final TaskActivityLog taskActivityLog;
+    private final TaskVersionCache taskVersionCache;
+
+    @Value("${tasks.batch.max-items:1000}")
+    private int batchMaxItems;
+
+    @Value("${tasks.batch.chunk-size:250}")
+    private int batchChunkSize;
 
     @Operation(summary = "Create a new task", description = "Creates a new task associated with the given author ID.")
     @ApiResponses(value = {
@@ -40,7 +103,78 @@ public class TaskManagerService {
                                NewTaskRequest request) {
         Task task = formTask(request);
 
-        return taskRepository.save(task);
+        Task saved = transactionTemplate.execute(status -> {
+            Task created = taskRepository.save(task);
+            taskCounterService.added(created);
+            recordChange(TaskEvent.of(TaskEventType.CREATED, created), null, created.getStatus().name());
+            return created;
+        });
+        taskSearchIndex.index(saved);
+        return saved;
+    }
+
+    @Operation(summary = "Create tasks in bulk", description = "Creates several tasks, inserting them in JDBC batches and reporting the outcome of every item.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Batch processed, see per-item results"),
+            @ApiResponse(responseCode = "400", description = "Too many items in one batch")
+    })
+    public BatchTasksResponse createTasks(@Parameter(description = "New task requests") List<NewTaskRequest> requests) {
+        if (requests.size() > batchMaxItems) {
+            throw new BatchTooLargeException("At most " + batchMaxItems + " tasks can be created in one batch");
+        }
+
+        BatchTaskResult[] results = new BatchTaskResult[requests.size()];
+        List<Integer> chunkIndexes = new ArrayList<>(batchChunkSize);
+        List<Task> chunk = new ArrayList<>(batchChunkSize);
+        for (int i = 0; i < requests.size(); i++) {
+            String error = validateNewTask(requests.get(i));
+            if (error != null) {
+                results[i] = BatchTaskResult.failed(i, error);
+                continue;
+            }
+            chunkIndexes.add(i);
+            chunk.add(formTask(requests.get(i)));
+            if (chunk.size() == batchChunkSize) {
+                saveChunk(chunk, chunkIndexes, results);
+            }
+        }
+        saveChunk(chunk, chunkIndexes, results);
+
+        return BatchTasksResponse.of(List.of(results));
+    }
+
+    private String validateNewTask(NewTaskRequest request) {
+        if (request.getTitle() == null || request.getTitle().isBlank()) {
+            return "Title must not be empty";
+        }
+        if (userCache.findById(request.getAuthorId()).isEmpty()) {
+            return "Author not found";
+        }
+        return null;
+    }
+
+    private void saveChunk(List<Task> chunk, List<Integer> chunkIndexes, BatchTaskResult[] results) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            List<Task> saved = transactionTemplate.execute(status -> {
+                List<Task> created = taskRepository.saveAll(chunk);
+                taskCounterService.addedAll(created);
+                created.forEach(task -> recordChange(TaskEvent.of(TaskEventType.CREATED, task), null, task.getStatus().name()));
+                return created;
+            });
+            for (int i = 0; i < saved.size(); i++) {
+                results[chunkIndexes.get(i)] = BatchTaskResult.created(chunkIndexes.get(i), saved.get(i).getId());
+                taskSearchIndex.index(saved.get(i));
+            }
+        } catch (RuntimeException e) {
+            for (Integer index : chunkIndexes) {
+                results[index] = BatchTaskResult.failed(index, "Batch insert failed");
+            }
+        }
+        chunk.clear();
+        chunkIndexes.clear();
     }
 
     @Operation(summary = "Add a comment to a task", description = "Adds a comment to the specified task.")
@@ -50,47 +184,112 @@ public class TaskManagerService {
     })
     public Comment addCommentToTask(@Parameter(description = "New comment request containing comment details")
                                         NewCommentRequest request) {
-        Task task = getExistingTask(request.getTaskId());
         User author = getExistingUser(request.getAuthorId());
 
-        Comment comment = formComment(request.getContent(), task, author.getId());
+        Comment comment = formComment(request.getContent(), request.getTaskId(), author.getId());
 
-        bindCommentOnTask(task, comment);
+        // The comments are part of the task's representation, so adding one moves the task to a new version.
+        Task task;
+        try {
+            task = transactionTemplate.execute(status -> {
+                taskRepository.incrementVersion(request.getTaskId())
+                        .orElseThrow(() -> new EntityNotFoundException("Task not found"));
+                commentRepository.save(comment);
+                Task commented = taskRepository.findCurrentById(request.getTaskId()).orElseThrow();
+                recordChange(TaskEvent.of(TaskEventType.COMMENTED, commented, comment.getId()), null, String.valueOf(comment.getId()));
+                return commented;
+            });
+        } finally {
+            // Whether committed or not, a cached copy may now carry the wrong version.
+            entityManagerFactory.getCache().evict(Task.class, request.getTaskId());
+        }
+        taskVersionCache.put(task);
+        evictCachedComments(request.getTaskId());
+        taskSearchIndex.index(comment);
+        return comment;
+    }
 
-        return commentRepository.save(comment);
+    // The comment is inserted without going through Task.comments, so Hibernate does not know the cached collection is stale.
+    private void evictCachedComments(long taskId) {
+        entityManagerFactory.getCache().unwrap(org.hibernate.Cache.class)
+                .evictCollectionData(Task.class.getName() + ".comments", taskId);
     }
 
-    private Comment formComment(String content, Task task, long author) {
+    private Comment formComment(String content, long taskId, long author) {
         Comment comment = new Comment();
         comment.setContent(content);
-        comment.setTaskId(task.getId());
+        comment.setTaskId(taskId);
         comment.setAuthor(author);
         return comment;
     }
 
-    private void bindCommentOnTask(Task task, Comment comment) {
-        if (task.getComments()!=null) {
-            List<Comment> comments = task.getComments();
-            comments.add(comment);
-            task.setComments(comments);
-            taskRepository.save(task);
-        } else {
-            task.setComments(List.of(comment));
-            taskRepository.save(task);
-        }
+    @Operation(summary = "Get comments of a task", description = "Retrieves the comments of a task page by page, oldest first.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Comments retrieved successfully"),
+            @ApiResponse(responseCode = "404", description = "Task not found")
+    })
+    @Transactional(readOnly = true)
+    public Slice<CommentResponse> getComments(@Parameter(description = "ID of the task") long taskId,
+                                              @Parameter(description = "Page number") int page,
+                                              @Parameter(description = "Page size") int pageSize) {
+        requireExistingTask(taskId);
+        return commentRepository.findAllByTaskIdOrderByIdAsc(taskId, PageRequest.of(page, pageSize)).map(CommentResponse::of);
+    }
+
+    @Operation(summary = "Get history of a task", description = "Retrieves the recorded activity of a task page by page, newest first. Entries are written behind and appear after the activity log flush interval.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "History retrieved successfully")
+    })
+    @Transactional(readOnly = true)
+    public Slice<TaskActivityResponse> getTaskHistory(@Parameter(description = "ID of the task") long taskId,
+                                                      @Parameter(description = "Page number") int page,
+                                                      @Parameter(description = "Page size") int pageSize) {
+        return taskActivityLog.getHistory(taskId, page, pageSize).map(TaskActivityResponse::of);
     }
 
     @Operation(summary = "Set assignee for a task", description = "Assigns a user to a specific task.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Assignee set successfully"),
-            @ApiResponse(responseCode = "404", description = "Task not found")
+            @ApiResponse(responseCode = "404", description = "Task not found"),
+            @ApiResponse(responseCode = "412", description = "Task is no longer at the expected version")
     })
     public Task setAssignee(@Parameter(description = "ID of the assignee") long assigneeId,
-                            @Parameter(description = "ID of the task") long taskId) {
-        Task task = getExistingTask(taskId);
-        User assignee = getExistingUser(assigneeId);
-        task.setAssignee(assignee.getId());
-        return taskRepository.save(task);
+                            @Parameter(description = "ID of the task") long taskId,
+                            @Parameter(description = "Version the task must still be at, or null for an unconditional update") Long expectedVersion) {
+        Task updated = updateTask(() -> {
+            Task task = getExistingTaskForUpdate(taskId, expectedVersion);
+            User assignee = getExistingUser(assigneeId);
+            TaskCounterId before = TaskCounterService.key(task);
+            task.setAssignee(assignee.getId());
+            Task saved = taskRepository.save(task);
+            taskCounterService.moved(before, TaskCounterService.key(saved));
+            recordChange(TaskEvent.of(TaskEventType.ASSIGNED, saved),
+                    String.valueOf(before.getAssignee()), String.valueOf(saved.getAssignee()), before.getAssignee());
+            return saved;
+        });
+        taskVersionCache.put(updated);
+        return updated;
+    }
+
+    @Operation(summary = "Get a task", description = "Retrieves a single task together with its comments.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Task retrieved successfully"),
+            @ApiResponse(responseCode = "404", description = "Task not found")
+    })
+    @Transactional(readOnly = true)
+    public Task getTask(@Parameter(description = "ID of the task") long taskId) {
+        // Not put into the version cache: a read-only transaction may be served by a replica that lags behind.
+        return taskRepository.findWithCommentsById(taskId)
+                .orElseThrow(() -> new EntityNotFoundException("Task not found"));
+    }
+
+    @Operation(summary = "Get the version of a task", description = "Returns the current version of a task, from the version cache when it is warm.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Version retrieved successfully"),
+            @ApiResponse(responseCode = "404", description = "Task not found")
+    })
+    public long getTaskVersion(@Parameter(description = "ID of the task") long taskId) {
+        return taskVersionCache.get(taskId);
     }
 
     @Operation(summary = "Get paginated tasks", description = "Retrieves tasks based on author or assignee ID with pagination.")
@@ -98,38 +297,338 @@ public class TaskManagerService {
             @ApiResponse(responseCode = "200", description = "Tasks retrieved successfully"),
             @ApiResponse(responseCode = "400", description = "Invalid parameters")
     })
-    public Page<Task> getTasksPaged(@Parameter(description = "New task request containing task details") TasksRequest request) {
-        if ((request.getAuthorId() != null && request.getAssigneeId() != null) ||
-                (request.getAuthorId() == null && request.getAssigneeId() == null)) {
-            throw new RuntimeException("Either authorId or assigneeId must be provided, but not both.");
-        }
+    @Transactional(readOnly = true)
+    public Page<TaskSummary> getTasksPaged(@Parameter(description = "New task request containing task details") TasksRequest request) {
+        validateTasksRequest(request);
 
         Pageable pageable = PageRequest.of(request.getOffset(), request.getPageSize());
 
         return request.getAuthorId() != null?
-                taskRepository.findAllByAuthorAndCreationDateBetween(request.getAuthorId(), request.getFrom(), request.getTo(), pageable):
-                taskRepository.findAllByAssigneeAndCreationDateBetween(request.getAssigneeId(), request.getFrom(), request.getTo(), pageable);
+                taskRepository.findAuthorSummaries(request.getAuthorId(), request.getFrom(), request.getTo(), request.archivedStates(), pageable):
+                taskRepository.findAssigneeSummaries(request.getAssigneeId(), request.getFrom(), request.getTo(), request.archivedStates(), pageable);
+    }
+
+    @Operation(summary = "Get tasks by cursor", description = "Retrieves tasks based on author or assignee ID, newest first, continuing after the given cursor.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Tasks retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid parameters")
+    })
+    @Transactional(readOnly = true)
+    public TasksSliceResponse<TaskSummary> getTasksSlice(@Parameter(description = "Tasks request with an optional cursor") TasksRequest request) {
+        validateTasksRequest(request);
+
+        TaskCursor cursor = request.getCursor() != null ?
+                TaskCursor.decode(request.getCursor()) :
+                TaskCursor.first(request.getTo());
+        Pageable pageable = PageRequest.ofSize(request.getPageSize());
+
+        Slice<TaskSummary> slice = request.getAuthorId() != null ?
+                taskRepository.findAuthorSlice(request.getAuthorId(), request.getFrom(), cursor.creationDate(), cursor.id(),
+                        request.archivedStates(), pageable) :
+                taskRepository.findAssigneeSlice(request.getAssigneeId(), request.getFrom(), cursor.creationDate(), cursor.id(),
+                        request.archivedStates(), pageable);
+
+        List<TaskSummary> content = slice.getContent();
+        String nextCursor = slice.hasNext() ? TaskCursor.after(content.get(content.size() - 1)).encode() : null;
+        return new TasksSliceResponse<>(content, nextCursor, slice.hasNext());
+    }
+
+    @Operation(summary = "Search tasks", description = "Full-text search over task titles, descriptions and comments of the tasks the caller authored or is assigned, best matches first.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Tasks found successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid search query")
+    })
+    @Transactional(readOnly = true)
+    public TaskSearchResponse searchTasks(@Parameter(description = "Search query") String query,
+                                          @Parameter(description = "Page number") int page,
+                                          @Parameter(description = "Page size") int pageSize) {
+        Long userId = currentUserId();
+        if (userId == null) {
+            return new TaskSearchResponse(List.of(), false);
+        }
+        Map<Long, Float> ranked = taskSearchIndex.search(query, page, pageSize,
+                candidates -> taskRepository.findIdsVisibleTo(candidates, userId));
+        boolean hasNext = ranked.size() > pageSize;
+        List<Long> ids = ranked.keySet().stream().limit(pageSize).toList();
+
+        Map<Long, TaskSummary> summaries = taskRepository.findSummariesByIds(ids).stream()
+                .collect(Collectors.toMap(TaskSummary::id, Function.identity()));
+        List<TaskSearchHit> hits = ids.stream()
+                .filter(summaries::containsKey)
+                .map(id -> new TaskSearchHit(summaries.get(id), ranked.get(id)))
+                .toList();
+        return new TaskSearchResponse(hits, hasNext);
+    }
+
+    @Operation(summary = "Export tasks", description = "Streams every task matching the author or assignee and date filters.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Tasks streamed successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid parameters")
+    })
+    public StreamingResponseBody exportTasks(@Parameter(description = "Tasks request with the filters to apply") TasksRequest request,
+                                             @Parameter(description = "Output format") ExportFormat format) {
+        validateTasksRequest(request);
+
+        TransactionTemplate readOnlyTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readOnlyTransaction.setReadOnly(true);
+
+        return outputStream -> readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<TaskExportRow> rows = request.getAuthorId() != null ?
+                         taskRepository.streamByAuthor(request.getAuthorId(), request.getFrom(), request.getTo(), request.archivedStates()) :
+                         taskRepository.streamByAssignee(request.getAssigneeId(), request.getFrom(), request.getTo(), request.archivedStates());
+                 TaskExportWriter writer = format == ExportFormat.CSV ?
+                         TaskExportWriter.csv(outputStream) :
+                         TaskExportWriter.ndjson(objectMapper, outputStream)) {
+                Iterator<TaskExportRow> iterator = rows.iterator();
+                while (iterator.hasNext()) {
+                    writer.write(iterator.next());
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private void validateTasksRequest(TasksRequest request) {
+        if ((request.getAuthorId() != null && request.getAssigneeId() != null) ||
+                (request.getAuthorId() == null && request.getAssigneeId() == null)) {
+            throw new RuntimeException("Either authorId or assigneeId must be provided, but not both.");
+        }
     }
 
     @Operation(summary = "Change status of a task", description = "Updates the status of the specified task.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Status updated successfully"),
-            @ApiResponse(responseCode = "404", description = "Task not found")
+            @ApiResponse(responseCode = "404", description = "Task not found"),
+            @ApiResponse(responseCode = "412", description = "Task is no longer at the expected version")
     })
     public Task changeTaskStatus(@Parameter(description = "ID of the task") long id,
-                                 @Parameter(description = "New status for the task") TaskStatus newStatus) {
-        Task task = getExistingTask(id);
-        task.setStatus(newStatus);
-        return taskRepository.save(task);
+                                 @Parameter(description = "New status for the task") TaskStatus newStatus,
+                                 @Parameter(description = "Version the task must still be at, or null for an unconditional update") Long expectedVersion) {
+        Task updated = updateTask(() -> {
+            Task task = getExistingTaskForUpdate(id, expectedVersion);
+            TaskCounterId before = TaskCounterService.key(task);
+            task.setStatus(newStatus);
+            Task saved = taskRepository.save(task);
+            taskCounterService.moved(before, TaskCounterService.key(saved));
+            recordChange(TaskEvent.of(TaskEventType.STATUS_CHANGED, saved), before.getStatus(), newStatus.name());
+            return saved;
+        });
+        taskVersionCache.put(updated);
+        return updated;
+    }
+
+    @Operation(summary = "Change status of many tasks", description = "Sets the status of the listed tasks, or of every task matching the filter, in one update.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Statuses updated successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid parameters")
+    })
+    public BulkUpdateResponse changeTasksStatus(@Parameter(description = "Task ids or filter and the new status") BulkStatusRequest request) {
+        validateBulkTarget(request.getTaskIds(), request.getFilter());
+        if (request.getStatus() == null) {
+            throw new InvalidRequestException("status must be provided");
+        }
+
+        TasksRequest filter = request.getFilter();
+        String newStatus = request.getStatus().name();
+        Integer updated = updateBulk(() -> {
+            List<Object[]> rows = request.getTaskIds() != null ?
+                    taskRepository.updateStatusByIds(request.getTaskIds(), newStatus) :
+                    filter.getAuthorId() != null ?
+                            taskRepository.updateStatusByAuthor(filter.getAuthorId(), filter.getFrom(), filter.getTo(),
+                                    filter.archivedStates(), newStatus) :
+                            taskRepository.updateStatusByAssignee(filter.getAssigneeId(), filter.getFrom(), filter.getTo(),
+                                    filter.archivedStates(), newStatus);
+            List<BulkTarget> targets = bulkTargets(rows);
+            taskCounterService.movedAll(countByKey(targets), key -> key.withStatus(request.getStatus()));
+            recordBulkChange(TaskEventType.STATUS_CHANGED, targets, target -> target.withStatus(request.getStatus()),
+                    target -> target.status().name());
+            return targets.size();
+        });
+        evictVersions(request.getTaskIds());
+        return new BulkUpdateResponse(updated);
+    }
+
+    @Operation(summary = "Set assignee for many tasks", description = "Assigns a user to the listed tasks, or to every task matching the filter, in one update.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Assignee set successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid parameters"),
+            @ApiResponse(responseCode = "404", description = "Assignee not found")
+    })
+    public BulkUpdateResponse setTasksAssignee(@Parameter(description = "Task ids or filter and the new assignee") BulkAssigneeRequest request) {
+        validateBulkTarget(request.getTaskIds(), request.getFilter());
+        User assignee = getExistingUser(request.getAssigneeId());
+
+        TasksRequest filter = request.getFilter();
+        Integer updated = updateBulk(() -> {
+            List<Object[]> rows = request.getTaskIds() != null ?
+                    taskRepository.updateAssigneeByIds(request.getTaskIds(), assignee.getId()) :
+                    filter.getAuthorId() != null ?
+                            taskRepository.updateAssigneeByAuthor(filter.getAuthorId(), filter.getFrom(), filter.getTo(),
+                                    filter.archivedStates(), assignee.getId()) :
+                            taskRepository.updateAssigneeByAssignee(filter.getAssigneeId(), filter.getFrom(), filter.getTo(),
+                                    filter.archivedStates(), assignee.getId());
+            List<BulkTarget> targets = bulkTargets(rows);
+            taskCounterService.movedAll(countByKey(targets), key -> key.withAssignee(assignee.getId()));
+            recordBulkChange(TaskEventType.ASSIGNED, targets, target -> target.withAssignee(assignee.getId()),
+                    target -> String.valueOf(target.assignee()));
+            return targets.size();
+        });
+        evictVersions(request.getTaskIds());
+        return new BulkUpdateResponse(updated);
+    }
+
+    // The update bypasses the entity, so Hibernate does not know that cached copies of these tasks are stale. They are
+    // evicted once the transaction has ended, so that no copy loaded before the commit survives it.
+    private <T> T updateBulk(Supplier<T> update) {
+        try {
+            return transactionTemplate.execute(status -> update.get());
+        } finally {
+            entityManagerFactory.getCache().evict(Task.class);
+        }
+    }
+
+    // Rows returned by the bulk updates of TaskRepository, carrying the values the update replaced.
+    private static List<BulkTarget> bulkTargets(List<Object[]> rows) {
+        return rows.stream()
+                .map(row -> new BulkTarget(((Number) row[0]).longValue(), (String) row[1],
+                        row[2] != null ? TaskStatus.valueOf((String) row[2]) : null,
+                        row[3] != null ? TaskPriority.valueOf((String) row[3]) : null,
+                        ((Number) row[4]).longValue(), ((Number) row[5]).longValue()))
+                .toList();
+    }
+
+    private static List<TaskCount> countByKey(List<BulkTarget> targets) {
+        return targets.stream()
+                .collect(Collectors.groupingBy(target -> TaskCounterId.of(target.assignee(), target.status(), target.priority()),
+                        Collectors.counting()))
+                .entrySet().stream()
+                .map(entry -> new TaskCount(entry.getKey().getAssignee(), entry.getKey().getStatus(),
+                        entry.getKey().getPriority(), entry.getValue()))
+                .toList();
+    }
+
+    // A filter can match any task, so without the ids every cached version is dropped.
+    private void evictVersions(List<Long> taskIds) {
+        if (taskIds != null) {
+            taskVersionCache.evictAll(taskIds);
+        } else {
+            taskVersionCache.evictAll();
+        }
+    }
+
+    private void validateBulkTarget(List<Long> taskIds, TasksRequest filter) {
+        if ((taskIds == null) == (filter == null)) {
+            throw new InvalidRequestException("Either taskIds or filter must be provided, but not both.");
+        }
+        if (taskIds != null && taskIds.size() > batchMaxItems) {
+            throw new BatchTooLargeException("At most " + batchMaxItems + " tasks can be updated by id in one call");
+        }
+        if (filter != null) {
+            validateTasksRequest(filter);
+        }
     }
 
     @Operation(summary = "Delete a task", description = "Deletes the specified task from the system.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "204", description = "Task deleted successfully"),
-            @ApiResponse(responseCode = "404", description = "Task not found")
+            @ApiResponse(responseCode = "404", description = "Task not found"),
+            @ApiResponse(responseCode = "412", description = "Task is no longer at the expected version")
     })
-    public void deleteTask(@Parameter(description="ID of the task to delete") long taskId) {
-        taskRepository.deleteById(taskId);
+    public void deleteTask(@Parameter(description="ID of the task to delete") long taskId,
+                           @Parameter(description = "Version the task must still be at, or null for an unconditional delete") Long expectedVersion) {
+        updateTask(() -> {
+            Optional<Task> existing = expectedVersion == null ?
+                    taskRepository.findForUpdateById(taskId) :
+                    Optional.of(getExistingTaskForUpdate(taskId, expectedVersion));
+            existing.ifPresent(task -> {
+                taskRepository.delete(task);
+                taskCounterService.removed(task);
+                recordChange(TaskEvent.of(TaskEventType.DELETED, task), null, null);
+            });
+            return null;
+        });
+        taskVersionCache.evict(taskId);
+        taskSearchIndex.delete(taskId);
+    }
+
+    // Unconditional updates lock the row, so they never lose a race. Conditional ones do not: the version check
+    // on flush turns a concurrent change into an optimistic locking failure, reported like any other mismatch.
+    private <T> T updateTask(Supplier<T> update) {
+        try {
+            return transactionTemplate.execute(status -> update.get());
+        } catch (OptimisticLockingFailureException e) {
+            throw new PreconditionFailedException("Task was modified concurrently");
+        }
+    }
+
+    // Subscribers and the activity log must never see a change that is rolled back, so inside a transaction both are
+    // fed only once it commits.
+    private void recordChange(TaskEvent event, String oldValue, String newValue, long... extraRecipients) {
+        TaskActivity activity = TaskActivity.builder()
+                .taskId(event.taskId())
+                .type(event.type())
+                .actor(currentUserId())
+                .oldValue(oldValue)
+                .newValue(newValue)
+                .occurredAt(Instant.now())
+                .build();
+        long[] recipients = LongStream.concat(LongStream.of(event.author(), event.assignee()), LongStream.of(extraRecipients))
+                .toArray();
+        afterCommit(() -> {
+            taskEventBroker.publish(event, recipients);
+            taskActivityLog.record(activity);
+        });
+    }
+
+    // One event and one activity entry per task, as for single updates, but from a single synchronization. The
+    // previous assignee is told as well, so that a reassigned task leaves their view.
+    private void recordBulkChange(TaskEventType type, List<BulkTarget> before, UnaryOperator<BulkTarget> change,
+                                  Function<BulkTarget, String> value) {
+        Long actor = currentUserId();
+        Instant now = Instant.now();
+        List<TaskEvent> events = new ArrayList<>(before.size());
+        List<long[]> recipients = new ArrayList<>(before.size());
+        List<TaskActivity> activities = new ArrayList<>(before.size());
+        for (BulkTarget target : before) {
+            BulkTarget after = change.apply(target);
+            TaskEvent event = TaskEvent.of(type, after);
+            events.add(event);
+            recipients.add(new long[]{event.author(), event.assignee(), target.assignee()});
+            activities.add(TaskActivity.builder()
+                    .taskId(target.id())
+                    .type(type)
+                    .actor(actor)
+                    .oldValue(value.apply(target))
+                    .newValue(value.apply(after))
+                    .occurredAt(now)
+                    .build());
+        }
+        afterCommit(() -> {
+            for (int i = 0; i < events.size(); i++) {
+                taskEventBroker.publish(events.get(i), recipients.get(i));
+            }
+            activities.forEach(taskActivityLog::record);
+        });
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.getPrincipal() instanceof UserPrincipal principal ?
+                principal.getId() : null;
     }
 
     private Task formTask(NewTaskRequest request) {
@@ -145,12 +644,26 @@ public class TaskManagerService {
     }
 
     private User getExistingUser(long userId) {
-        return userRepository.findById(userId)
+        return userCache.findById(userId)
                 .orElseThrow(() -> new EntityNotFoundException("Author not found"));
     }
 
-    private Task getExistingTask(long taskId) {
-        return taskRepository.findById(taskId)
+    private void requireExistingTask(long taskId) {
+        if (!taskRepository.existsById(taskId)) {
+            throw new EntityNotFoundException("Task not found");
+        }
+    }
+
+    private Task getExistingTaskForUpdate(long taskId, Long expectedVersion) {
+        if (expectedVersion == null) {
+            return taskRepository.findForUpdateById(taskId)
+                    .orElseThrow(() -> new EntityNotFoundException("Task not found"));
+        }
+        Task task = taskRepository.findCurrentById(taskId)
                 .orElseThrow(() -> new EntityNotFoundException("Task not found"));
+        if (task.getVersion() != expectedVersion) {
+            throw new PreconditionFailedException("Task is at version " + task.getVersion() + ", not " + expectedVersion);
+        }
+        return task;
     }
 }
@@ -0,0 +1,534 @@
+package org.example.taskmanager.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.SegmentInfos;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.classic.MultiFieldQueryParser;
+import org.apache.lucene.queryparser.classic.ParseException;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.FSDirectory;
+import org.example.taskmanager.dto.TaskExportRow;
+import org.example.taskmanager.exception.InvalidRequestException;
+import org.example.taskmanager.model.Comment;
+import org.example.taskmanager.model.SearchChange;
+import org.example.taskmanager.model.Task;
+import org.example.taskmanager.repository.CommentRepository;
+import org.example.taskmanager.repository.SearchChangeRepository;
+import org.example.taskmanager.repository.TaskRepository;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+
+/**
+ * Embedded Lucene index over task titles, descriptions and comments. Every task and every comment is its own
+ * document carrying the owning task id, so appending a comment is a single document write; search results are
+ * collapsed to tasks ranked by their best matching document.
+ * <p>
+ * The index is kept up to date by the service write paths of this instance and by a periodic catch-up that applies
+ * the search_changes feed, which database triggers fill for the writes of every instance; changes become searchable
+ * after the next periodic refresh. The feed is read up to a horizon of ended transactions, which is kept in the index
+ * commit data so that a restart resumes where it stopped. Each build lives in its own directory under the configured
+ * path. On startup the index is rebuilt from the database only when there is none, when it was built for another
+ * {@link #INDEX_VERSION}, when the application did not shut down cleanly and writes since the last commit may be
+ * lost, or when it was committed longer ago than the feed is retained. A rebuild writes a fresh directory while
+ * searches keep using the current one; writes made meanwhile go to both, and the new index replaces the old one
+ * only once complete.
+ */
+@Slf4j
+@Component
+public class TaskSearchIndex implements DisposableBean {
+    // Bump when documents or analysis change, so that existing indexes are rebuilt.
+    static final String INDEX_VERSION = "1";
+
+    private static final String DOC_ID = "docId";
+    private static final String TASK_ID = "taskId";
+    private static final String TITLE = "title";
+    private static final String DESCRIPTION = "description";
+    private static final String COMMENT = "comment";
+    private static final String VERSION_KEY = "version";
+    private static final String CLEAN_KEY = "clean";
+    private static final String HORIZON_KEY = "horizon";
+    private static final String COMMITTED_AT_KEY = "committedAt";
+    private static final int CATCH_UP_CHUNK = 1000;
+    private static final String GENERATION_PREFIX = "index-";
+
+    private final TaskRepository taskRepository;
+    private final CommentRepository commentRepository;
+    private final SearchChangeRepository searchChangeRepository;
+    // Not read-only: reads must not be routed to a replica that may lag behind the feed horizon.
+    private final TransactionTemplate transactionTemplate;
+    private final boolean rebuildOnStartup;
+    private final Duration changesRetention;
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final Path path;
+    private final boolean rebuildNeeded;
+    // Writes and searches share the lock, swapping in a rebuilt index takes it exclusively.
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+    private volatile Generation current;
+    // Transaction id below which the search_changes feed has been applied, null until known.
+    private volatile Long horizon;
+    // Documents and task deletions written while a rebuild runs, replayed onto the rebuilt index before the swap.
+    private volatile Map<String, Document> rebuildWrites;
+    private volatile Set<Long> rebuildDeletes;
+
+    private record Generation(Path path, FSDirectory directory, IndexWriter writer, SearcherManager searcherManager) {
+
+        static Generation open(Path path, Analyzer analyzer) throws IOException {
+            FSDirectory directory = FSDirectory.open(path);
+            IndexWriter writer = new IndexWriter(directory, new IndexWriterConfig(analyzer)
+                    .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+            return new Generation(path, directory, writer, new SearcherManager(writer, null));
+        }
+
+        void commit(boolean clean, Long horizon) throws IOException {
+            Map<String, String> data = new HashMap<>(Map.of(VERSION_KEY, INDEX_VERSION, CLEAN_KEY, String.valueOf(clean),
+                    COMMITTED_AT_KEY, String.valueOf(System.currentTimeMillis())));
+            if (horizon != null) {
+                data.put(HORIZON_KEY, String.valueOf(horizon));
+            }
+            writer.setLiveCommitData(data.entrySet());
+            writer.commit();
+        }
+
+        void close() throws IOException {
+            searcherManager.close();
+            writer.close();
+            directory.close();
+        }
+    }
+
+    public TaskSearchIndex(TaskRepository taskRepository,
+                           CommentRepository commentRepository,
+                           SearchChangeRepository searchChangeRepository,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${search.index.path}") Path path,
+                           @Value("${search.index.rebuild-on-startup:true}") boolean rebuildOnStartup,
+                           @Value("${search.index.changes-retention:1d}") Duration changesRetention) throws IOException {
+        this.taskRepository = taskRepository;
+        this.commentRepository = commentRepository;
+        this.searchChangeRepository = searchChangeRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.rebuildOnStartup = rebuildOnStartup;
+        this.changesRetention = changesRetention;
+        this.path = path;
+        Files.createDirectories(path);
+
+        Optional<Path> latest = latestGeneration();
+        Map<String, String> commitData = latest.isPresent() ? commitData(latest.get()) : Map.of();
+        String committedAt = commitData.get(COMMITTED_AT_KEY);
+        this.rebuildNeeded = !INDEX_VERSION.equals(commitData.get(VERSION_KEY)) ||
+                !Boolean.parseBoolean(commitData.get(CLEAN_KEY)) ||
+                !commitData.containsKey(HORIZON_KEY) || committedAt == null ||
+                Instant.ofEpochMilli(Long.parseLong(committedAt)).isBefore(Instant.now().minus(changesRetention));
+        if (!rebuildNeeded) {
+            this.horizon = Long.valueOf(commitData.get(HORIZON_KEY));
+        }
+        this.current = Generation.open(latest.orElseGet(this::newGenerationPath), analyzer);
+        // Marked unclean until closed, so that a crash leads to a rebuild on the next start.
+        current.commit(false, horizon);
+        deleteGenerationsOtherThan(current.path());
+    }
+
+    public void index(Task task) {
+        index(task.getId(), task.getTitle(), task.getDescription());
+    }
+
+    public void index(Comment comment) {
+        write("comment-" + comment.getId(), commentDocument(comment));
+    }
+
+    private void index(long taskId, String title, String description) {
+        write("task-" + taskId, taskDocument(taskId, title, description));
+    }
+
+    private static Document taskDocument(long taskId, String title, String description) {
+        Document document = new Document();
+        document.add(new StringField(DOC_ID, "task-" + taskId, Field.Store.NO));
+        document.add(new StringField(TASK_ID, String.valueOf(taskId), Field.Store.YES));
+        if (title != null) {
+            document.add(new TextField(TITLE, title, Field.Store.NO));
+        }
+        if (description != null) {
+            document.add(new TextField(DESCRIPTION, description, Field.Store.NO));
+        }
+        return document;
+    }
+
+    private static Document commentDocument(Comment comment) {
+        Document document = new Document();
+        document.add(new StringField(DOC_ID, "comment-" + comment.getId(), Field.Store.NO));
+        document.add(new StringField(TASK_ID, String.valueOf(comment.getTaskId()), Field.Store.YES));
+        if (comment.getContent() != null) {
+            document.add(new TextField(COMMENT, comment.getContent(), Field.Store.NO));
+        }
+        return document;
+    }
+
+    public void delete(long taskId) {
+        swapLock.readLock().lock();
+        try {
+            current.writer().deleteDocuments(new Term(TASK_ID, String.valueOf(taskId)));
+            Set<Long> deletes = rebuildDeletes;
+            if (deletes != null) {
+                deletes.add(taskId);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    private void deleteComment(long commentId) {
+        swapLock.readLock().lock();
+        try {
+            current.writer().deleteDocuments(new Term(DOC_ID, "comment-" + commentId));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    private void write(String docId, Document document) {
+        swapLock.readLock().lock();
+        try {
+            current.writer().updateDocument(new Term(DOC_ID, docId), document);
+            Map<String, Document> writes = rebuildWrites;
+            if (writes != null) {
+                writes.put(docId, document);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns ids of the tasks matching the query, best first, for the requested page. Only tasks kept by
+     * {@code visible}, which is given batches of candidate ids in rank order, count towards pages.
+     * The map is ordered by rank and holds one more entry than the page when there is a next page.
+     */
+    public Map<Long, Float> search(String queryText, int page, int pageSize, UnaryOperator<Set<Long>> visible) {
+        Query query = parse(queryText);
+        int wanted = (page + 1) * pageSize + 1;
+        Map<Long, Float> ranked = new LinkedHashMap<>();
+        Set<Long> seen = new HashSet<>();
+        swapLock.readLock().lock();
+        try {
+            SearcherManager searcherManager = current.searcherManager();
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                ScoreDoc after = null;
+                while (ranked.size() < wanted) {
+                    TopDocs top = searcher.searchAfter(after, query, wanted * 2);
+                    if (top.scoreDocs.length == 0) {
+                        break;
+                    }
+                    Map<Long, Float> candidates = new LinkedHashMap<>();
+                    for (ScoreDoc scoreDoc : top.scoreDocs) {
+                        long taskId = Long.parseLong(searcher.storedFields().document(scoreDoc.doc).get(TASK_ID));
+                        if (seen.add(taskId)) {
+                            candidates.put(taskId, scoreDoc.score);
+                        }
+                    }
+                    if (!candidates.isEmpty()) {
+                        Set<Long> allowed = visible.apply(candidates.keySet());
+                        candidates.forEach((taskId, score) -> {
+                            if (allowed.contains(taskId)) {
+                                ranked.put(taskId, score);
+                            }
+                        });
+                    }
+                    after = top.scoreDocs[top.scoreDocs.length - 1];
+                }
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            swapLock.readLock().unlock();
+        }
+
+        Map<Long, Float> pageHits = new LinkedHashMap<>();
+        ranked.entrySet().stream()
+                .skip((long) page * pageSize)
+                .limit(pageSize + 1L)
+                .forEach(hit -> pageHits.put(hit.getKey(), hit.getValue()));
+        return pageHits;
+    }
+
+    private Query parse(String queryText) {
+        MultiFieldQueryParser parser = new MultiFieldQueryParser(
+                new String[]{TITLE, DESCRIPTION, COMMENT}, analyzer, Map.of(TITLE, 3f, DESCRIPTION, 1f, COMMENT, 1f));
+        try {
+            return parser.parse(queryText);
+        } catch (ParseException e) {
+            throw new InvalidRequestException("Invalid search query");
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${search.index.refresh-interval-ms:1000}")
+    public void refresh() throws IOException {
+        swapLock.readLock().lock();
+        try {
+            current.searcherManager().maybeRefresh();
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Applies the changes that transactions ended since the last run made to tasks and comments, on any instance.
+     * Documents are reloaded from their current rows, so changes this instance has indexed already are harmless.
+     * Shares the monitor with {@link #rebuild()}, which moves the horizon back to where its scan started.
+     */
+    @Scheduled(fixedDelayString = "${search.index.catch-up-interval-ms:1000}")
+    public synchronized void catchUp() {
+        Long from = horizon;
+        if (from == null) {
+            // Not known yet: follow the feed from now on, a pending rebuild scans everything before that.
+            horizon = transactionTemplate.execute(status -> searchChangeRepository.currentHorizon());
+            return;
+        }
+        long to = transactionTemplate.execute(status -> {
+            long until = searchChangeRepository.currentHorizon();
+            List<SearchChange> changes = searchChangeRepository.findAllBetween(from, until);
+            Set<Long> taskIds = new HashSet<>();
+            Set<Long> commentIds = new HashSet<>();
+            for (SearchChange change : changes) {
+                if (change.getCommentId() != null) {
+                    commentIds.add(change.getCommentId());
+                } else {
+                    taskIds.add(change.getTaskId());
+                }
+            }
+            for (List<Long> chunk : chunks(taskIds)) {
+                Set<Long> missing = new HashSet<>(chunk);
+                for (TaskExportRow task : taskRepository.findExportRowsByIds(chunk)) {
+                    index(task.id(), task.title(), task.description());
+                    missing.remove(task.id());
+                }
+                missing.forEach(this::delete);
+            }
+            for (List<Long> chunk : chunks(commentIds)) {
+                Set<Long> missing = new HashSet<>(chunk);
+                for (Comment comment : commentRepository.findAllById(chunk)) {
+                    index(comment);
+                    missing.remove(comment.getId());
+                }
+                missing.forEach(this::deleteComment);
+            }
+            if (!changes.isEmpty()) {
+                log.debug("Applied {} search changes up to transaction {}", changes.size(), until);
+            }
+            return until;
+        });
+        horizon = to;
+    }
+
+    private static List<List<Long>> chunks(Set<Long> ids) {
+        List<Long> all = new ArrayList<>(ids);
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int i = 0; i < all.size(); i += CATCH_UP_CHUNK) {
+            chunks.add(all.subList(i, Math.min(i + CATCH_UP_CHUNK, all.size())));
+        }
+        return chunks;
+    }
+
+    // Every instance runs this; the deletes are idempotent. Indexes committed before the cut-off are rebuilt on start.
+    @Scheduled(initialDelayString = "${search.index.changes-purge-interval-ms:3600000}",
+            fixedDelayString = "${search.index.changes-purge-interval-ms:3600000}")
+    public void purgeChanges() {
+        Integer purged = transactionTemplate.execute(status ->
+                searchChangeRepository.deleteAllChangedBefore(Instant.now().minus(changesRetention)));
+        if (purged != null && purged > 0) {
+            log.info("Purged {} search changes", purged);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (rebuildOnStartup && rebuildNeeded) {
+            Thread.ofPlatform().name("task-search-rebuild").start(() -> {
+                try {
+                    rebuild();
+                } catch (RuntimeException e) {
+                    log.error("Rebuilding the task search index failed", e);
+                }
+            });
+        }
+    }
+
+    /**
+     * Builds a new index from the database and swaps it in. Writes made while the rebuild runs carry the latest
+     * state of their documents, so they are applied on top of what was read from the database. The feed horizon is
+     * taken before the scan, so the next catch-up reapplies every change the scan may have missed.
+     */
+    public synchronized void rebuild() {
+        Generation next = null;
+        try {
+            next = Generation.open(newGenerationPath(), analyzer);
+            rebuildWrites = new ConcurrentHashMap<>();
+            rebuildDeletes = ConcurrentHashMap.newKeySet();
+            IndexWriter writer = next.writer();
+            long scanHorizon = transactionTemplate.execute(status -> {
+                long start = searchChangeRepository.currentHorizon();
+                try {
+                    try (Stream<TaskExportRow> tasks = taskRepository.streamAllForIndex()) {
+                        Iterator<TaskExportRow> iterator = tasks.iterator();
+                        while (iterator.hasNext()) {
+                            TaskExportRow task = iterator.next();
+                            writer.updateDocument(new Term(DOC_ID, "task-" + task.id()),
+                                    taskDocument(task.id(), task.title(), task.description()));
+                        }
+                    }
+                    try (Stream<Comment> comments = commentRepository.streamAllForIndex()) {
+                        Iterator<Comment> iterator = comments.iterator();
+                        while (iterator.hasNext()) {
+                            Comment comment = iterator.next();
+                            writer.updateDocument(new Term(DOC_ID, "comment-" + comment.getId()), commentDocument(comment));
+                        }
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return start;
+            });
+
+            Generation previous;
+            swapLock.writeLock().lock();
+            try {
+                for (Map.Entry<String, Document> write : rebuildWrites.entrySet()) {
+                    writer.updateDocument(new Term(DOC_ID, write.getKey()), write.getValue());
+                }
+                for (long taskId : rebuildDeletes) {
+                    writer.deleteDocuments(new Term(TASK_ID, String.valueOf(taskId)));
+                }
+                Long applied = horizon;
+                horizon = applied == null ? scanHorizon : Math.min(applied, scanHorizon);
+                next.commit(false, horizon);
+                next.searcherManager().maybeRefresh();
+                previous = current;
+                current = next;
+                next = null;
+            } finally {
+                rebuildWrites = null;
+                rebuildDeletes = null;
+                swapLock.writeLock().unlock();
+            }
+            previous.close();
+            FileSystemUtils.deleteRecursively(previous.path());
+            log.info("Rebuilt the task search index in {}", current.path());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            rebuildWrites = null;
+            rebuildDeletes = null;
+            if (next != null) {
+                discard(next);
+            }
+        }
+    }
+
+    private void discard(Generation generation) {
+        try {
+            generation.close();
+            FileSystemUtils.deleteRecursively(generation.path());
+        } catch (IOException e) {
+            log.warn("Could not remove the unfinished task search index {}", generation.path(), e);
+        }
+    }
+
+    private Optional<Path> latestGeneration() throws IOException {
+        try (Stream<Path> directories = Files.list(path)) {
+            List<Path> candidates = new ArrayList<>(directories
+                    .filter(directory -> directory.getFileName().toString().startsWith(GENERATION_PREFIX))
+                    .sorted(Comparator.comparing(Path::getFileName).reversed())
+                    .toList());
+            for (Path candidate : candidates) {
+                try (FSDirectory directory = FSDirectory.open(candidate)) {
+                    if (DirectoryReader.indexExists(directory)) {
+                        return Optional.of(candidate);
+                    }
+                }
+            }
+            return Optional.empty();
+        }
+    }
+
+    private static Map<String, String> commitData(Path generation) throws IOException {
+        try (FSDirectory directory = FSDirectory.open(generation)) {
+            return SegmentInfos.readLatestCommit(directory).getUserData();
+        }
+    }
+
+    private void deleteGenerationsOtherThan(Path keep) throws IOException {
+        try (Stream<Path> directories = Files.list(path)) {
+            for (Path directory : directories.filter(Files::isDirectory).toList()) {
+                if (directory.getFileName().toString().startsWith(GENERATION_PREFIX) && !directory.equals(keep)) {
+                    FileSystemUtils.deleteRecursively(directory);
+                }
+            }
+        }
+    }
+
+    // Zero padded, so that the names sort by creation time.
+    private Path newGenerationPath() {
+        return path.resolve(GENERATION_PREFIX + String.format("%019d", System.currentTimeMillis()));
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        swapLock.writeLock().lock();
+        try {
+            current.commit(true, horizon);
+            current.close();
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+    }
+}
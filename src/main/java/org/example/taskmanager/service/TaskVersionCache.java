@@ -0,0 +1,80 @@
+package org.example.taskmanager.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.example.taskmanager.exception.EntityNotFoundException;
+import org.example.taskmanager.model.Task;
+import org.example.taskmanager.repository.TaskRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Collection;
+
+/**
+ * Current version of each recently read or written task, so conditional reads can be answered without
+ * touching the row. Versions only grow, so a late put of an older version never replaces a newer one.
+ * <p>
+ * Entries come only from the write paths and from the primary: a version read from a lagging replica would be
+ * cached as current and answer conditional reads with a stale 304 until it expires.
+ * <p>
+ * Writes made on this instance update the cache once they commit. Writes made by other instances are not
+ * seen until the entry expires after {@code tasks.versions.ttl}, which bounds how long a stale 304 can be served.
+ */
+@Component
+public class TaskVersionCache {
+    private final TaskRepository taskRepository;
+    // Not read-only, so that misses are loaded from the primary.
+    private final TransactionTemplate primaryTransaction;
+    private final Cache<Long, Long> versions;
+
+    public TaskVersionCache(TaskRepository taskRepository,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${tasks.versions.ttl:10s}") Duration ttl,
+                            @Value("${tasks.versions.max-size:100000}") long maxSize,
+                            MeterRegistry meterRegistry) {
+        this.taskRepository = taskRepository;
+        this.primaryTransaction = new TransactionTemplate(transactionManager);
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, versions, "tasks.versions");
+    }
+
+    // Loaded outside the cache's compute lock for the same reason as in UserCache.
+    public long get(long taskId) {
+        Long version = versions.getIfPresent(taskId);
+        if (version == null) {
+            version = primaryTransaction.execute(status -> taskRepository.findVersionById(taskId))
+                    .orElseThrow(() -> new EntityNotFoundException("Task not found"));
+            put(taskId, version);
+        }
+        return version;
+    }
+
+    public void put(Task task) {
+        put(task.getId(), task.getVersion());
+    }
+
+    private void put(long taskId, long version) {
+        versions.asMap().merge(taskId, version, Math::max);
+    }
+
+    public void evict(long taskId) {
+        versions.invalidate(taskId);
+    }
+
+    public void evictAll(Collection<Long> taskIds) {
+        versions.invalidateAll(taskIds);
+    }
+
+    public void evictAll() {
+        versions.invalidateAll();
+    }
+}
@@ -0,0 +1,93 @@
+package org.example.taskmanager.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.example.taskmanager.model.User;
+import org.example.taskmanager.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Read-through cache of users keyed by both username and id. Only existing users are cached,
+ * entries expire after {@code users.cache.ttl} and must be evicted whenever a user row changes.
+ * <p>
+ * Misses are loaded outside the cache's compute lock: the map's bin lock is a monitor, and holding
+ * it across a JDBC round-trip would pin the carrier thread when running on virtual threads.
+ */
+@Component
+public class UserCache {
+    private final UserRepository userRepository;
+    private final Cache<String, User> byUsername;
+    private final Cache<Long, User> byId;
+
+    public UserCache(UserRepository userRepository,
+                     @Value("${users.cache.ttl:5m}") Duration ttl,
+                     @Value("${users.cache.max-size:10000}") long maxSize,
+                     MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.byUsername = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, byUsername, "users.by-username");
+        CaffeineCacheMetrics.monitor(meterRegistry, byId, "users.by-id");
+    }
+
+    public Optional<User> findByUsername(String username) {
+        User user = byUsername.getIfPresent(username);
+        if (user == null) {
+            user = userRepository.findByUsername(username);
+            if (user != null) {
+                put(user);
+            }
+        }
+        return Optional.ofNullable(user);
+    }
+
+    public Optional<User> findById(long id) {
+        User user = byId.getIfPresent(id);
+        if (user == null) {
+            user = userRepository.findById(id).orElse(null);
+            if (user != null) {
+                put(user);
+            }
+        }
+        return Optional.ofNullable(user);
+    }
+
+    public void put(User user) {
+        byUsername.put(user.getUsername(), user);
+        byId.put(user.getId(), user);
+    }
+
+    public void evict(User user) {
+        byUsername.invalidate(user.getUsername());
+        if (user.getId() != null) {
+            byId.invalidate(user.getId());
+        }
+    }
+
+    public CacheStats byUsernameStats() {
+        return byUsername.stats();
+    }
+
+    public CacheStats byIdStats() {
+        return byId.stats();
+    }
+
+    public long size() {
+        return byId.estimatedSize();
+    }
+}
@@ -0,0 +1,8 @@
+CREATE INDEX IF NOT EXISTS idx_tasks_author_creation_date
+    ON tasks (author, creation_date DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_tasks_assignee_creation_date
+    ON tasks (assignee, creation_date DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_comments_task_id
+    ON comments (task_id, id);
@@ -0,0 +1,7 @@
+CREATE SEQUENCE IF NOT EXISTS users_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS tasks_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS comments_seq INCREMENT BY 50;
+
+SELECT setval('users_seq', COALESCE(MAX(id), 0) + 50) FROM users;
+SELECT setval('tasks_seq', COALESCE(MAX(id), 0) + 50) FROM tasks;
+SELECT setval('comments_seq', COALESCE(MAX(id), 0) + 50) FROM comments;
@@ -0,0 +1,13 @@
+CREATE TABLE IF NOT EXISTS task_counters (
+    assignee BIGINT NOT NULL,
+    status VARCHAR NOT NULL,
+    priority VARCHAR NOT NULL,
+    task_count BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (assignee, status, priority)
+    );
+
+INSERT INTO task_counters (assignee, status, priority, task_count)
+SELECT COALESCE(assignee, 0), COALESCE(status, 'NONE'), COALESCE(priority, 'NONE'), COUNT(*)
+FROM tasks
+GROUP BY COALESCE(assignee, 0), COALESCE(status, 'NONE'), COALESCE(priority, 'NONE')
+ON CONFLICT DO NOTHING;
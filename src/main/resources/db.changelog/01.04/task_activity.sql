@@ -0,0 +1,14 @@
+CREATE SEQUENCE IF NOT EXISTS task_activity_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS task_activity (
+    id BIGINT PRIMARY KEY,
+    task_id BIGINT NOT NULL,
+    type VARCHAR NOT NULL,
+    actor BIGINT,
+    old_value VARCHAR(255),
+    new_value VARCHAR(255),
+    occurred_at TIMESTAMP WITH TIME ZONE NOT NULL
+    );
+
+CREATE INDEX IF NOT EXISTS idx_task_activity_task_id
+    ON task_activity (task_id, id DESC);
@@ -0,0 +1,89 @@
+-- Tasks are split by the archived flag. Live tasks are range partitioned by month of creation_date, archived ones
+-- sit in a single cold partition. Archiving a task is an update of the flag, which moves the row across partitions.
+-- Unique constraints on a partitioned table must contain every partition key, so ids are unique only through tasks_seq.
+
+ALTER TABLE tasks RENAME TO tasks_unpartitioned;
+ALTER TABLE comments RENAME TO comments_unpartitioned;
+
+CREATE TABLE tasks (
+    id BIGINT NOT NULL,
+    title VARCHAR(255) NOT NULL,
+    description TEXT,
+    status VARCHAR CHECK (status IN ('PENDING', 'IN_PROGRESS', 'COMPLETED')),
+    priority VARCHAR CHECK (priority IN ('HIGH', 'MEDIUM', 'LOW')),
+    author BIGINT NOT NULL,
+    assignee BIGINT,
+    creation_date TIMESTAMP NOT NULL,
+    version BIGINT NOT NULL DEFAULT 0,
+    archived BOOLEAN NOT NULL DEFAULT FALSE,
+    PRIMARY KEY (id, archived, creation_date)
+    ) PARTITION BY LIST (archived);
+
+CREATE TABLE tasks_live PARTITION OF tasks FOR VALUES IN (FALSE) PARTITION BY RANGE (creation_date);
+CREATE TABLE tasks_live_default PARTITION OF tasks_live DEFAULT;
+CREATE TABLE tasks_archive PARTITION OF tasks FOR VALUES IN (TRUE);
+
+CREATE TABLE comments (
+    id BIGINT NOT NULL,
+    content TEXT NOT NULL,
+    task_id BIGINT NOT NULL,
+    author BIGINT NOT NULL,
+    archived BOOLEAN NOT NULL DEFAULT FALSE,
+    PRIMARY KEY (id, archived)
+    ) PARTITION BY LIST (archived);
+
+CREATE TABLE comments_live PARTITION OF comments FOR VALUES IN (FALSE);
+CREATE TABLE comments_archive PARTITION OF comments FOR VALUES IN (TRUE);
+
+-- Creates the monthly partitions of live tasks from from_month up to and including to_month that do not exist yet.
+-- Rows that landed in the default partition for a new month are moved into it before it is attached.
+CREATE OR REPLACE FUNCTION create_task_partitions(from_month TIMESTAMP, to_month TIMESTAMP) RETURNS INT AS $$
+DECLARE
+    lower_bound TIMESTAMP := date_trunc('month', from_month);
+    upper_bound TIMESTAMP;
+    partition_name TEXT;
+    created INT := 0;
+BEGIN
+    WHILE lower_bound <= to_month LOOP
+        upper_bound := lower_bound + INTERVAL '1 month';
+        partition_name := 'tasks_live_' || to_char(lower_bound, 'YYYY_MM');
+        IF to_regclass(partition_name) IS NULL THEN
+            EXECUTE format('CREATE TABLE %I (LIKE tasks_live INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', partition_name);
+            EXECUTE format('WITH moved AS (DELETE FROM tasks_live_default WHERE creation_date >= %L AND creation_date < %L RETURNING *) '
+                               'INSERT INTO %I SELECT * FROM moved', lower_bound, upper_bound, partition_name);
+            EXECUTE format('ALTER TABLE tasks_live ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                           partition_name, lower_bound, upper_bound);
+            created := created + 1;
+        END IF;
+        lower_bound := upper_bound;
+    END LOOP;
+    RETURN created;
+END;
+$$ LANGUAGE plpgsql;
+
+SELECT create_task_partitions(
+    LEAST((SELECT MIN(creation_date) FROM tasks_unpartitioned), LOCALTIMESTAMP),
+    LOCALTIMESTAMP + INTERVAL '3 months');
+
+INSERT INTO tasks (id, title, description, status, priority, author, assignee, creation_date, version)
+SELECT id, title, description, status, priority, author, assignee, creation_date, version
+FROM tasks_unpartitioned;
+
+INSERT INTO comments (id, content, task_id, author)
+SELECT id, content, task_id, author
+FROM comments_unpartitioned;
+
+DROP TABLE tasks_unpartitioned;
+DROP TABLE comments_unpartitioned;
+
+CREATE INDEX IF NOT EXISTS idx_tasks_author_creation_date
+    ON tasks (author, creation_date DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_tasks_assignee_creation_date
+    ON tasks (assignee, creation_date DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_tasks_live_completed
+    ON tasks_live (creation_date, id) WHERE status = 'COMPLETED';
+
+CREATE INDEX IF NOT EXISTS idx_comments_task_id
+    ON comments (task_id, id);
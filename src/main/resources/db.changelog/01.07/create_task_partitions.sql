@@ -0,0 +1,26 @@
+-- Every instance calls this on startup, so two callers could both find a month missing and both create it. The
+-- transaction-scoped lock makes them take turns; the second one then sees the partitions of the first.
+CREATE OR REPLACE FUNCTION create_task_partitions(from_month TIMESTAMP, to_month TIMESTAMP) RETURNS INT AS $$
+DECLARE
+    lower_bound TIMESTAMP := date_trunc('month', from_month);
+    upper_bound TIMESTAMP;
+    partition_name TEXT;
+    created INT := 0;
+BEGIN
+    PERFORM pg_advisory_xact_lock(hashtext('create_task_partitions'));
+    WHILE lower_bound <= to_month LOOP
+        upper_bound := lower_bound + INTERVAL '1 month';
+        partition_name := 'tasks_live_' || to_char(lower_bound, 'YYYY_MM');
+        IF to_regclass(partition_name) IS NULL THEN
+            EXECUTE format('CREATE TABLE %I (LIKE tasks_live INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', partition_name);
+            EXECUTE format('WITH moved AS (DELETE FROM tasks_live_default WHERE creation_date >= %L AND creation_date < %L RETURNING *) '
+                               'INSERT INTO %I SELECT * FROM moved', lower_bound, upper_bound, partition_name);
+            EXECUTE format('ALTER TABLE tasks_live ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                           partition_name, lower_bound, upper_bound);
+            created := created + 1;
+        END IF;
+        lower_bound := upper_bound;
+    END LOOP;
+    RETURN created;
+END;
+$$ LANGUAGE plpgsql;
@@ -0,0 +1,48 @@
+-- Feed of changes to the searchable task and comment text, polled by every instance to update its own search index.
+-- Rows carry the id of the writing transaction: once it is below the xmin of a snapshot, that transaction has ended
+-- and all of its rows are visible, so readers can advance by transaction ids without skipping late commits.
+
+CREATE TABLE IF NOT EXISTS search_changes (
+    id BIGSERIAL PRIMARY KEY,
+    xid BIGINT NOT NULL DEFAULT txid_current(),
+    task_id BIGINT NOT NULL,
+    comment_id BIGINT,
+    changed_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now()
+    );
+
+CREATE INDEX IF NOT EXISTS idx_search_changes_xid
+    ON search_changes (xid);
+
+CREATE INDEX IF NOT EXISTS idx_search_changes_changed_at
+    ON search_changes (changed_at);
+
+CREATE OR REPLACE FUNCTION record_task_search_change() RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        INSERT INTO search_changes (task_id) VALUES (OLD.id);
+    ELSE
+        INSERT INTO search_changes (task_id) VALUES (NEW.id);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION record_comment_search_change() RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        INSERT INTO search_changes (task_id, comment_id) VALUES (OLD.task_id, OLD.id);
+    ELSE
+        INSERT INTO search_changes (task_id, comment_id) VALUES (NEW.task_id, NEW.id);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Status, assignee, version and archive updates do not change what is indexed and are left out.
+CREATE TRIGGER tasks_search_change
+    AFTER INSERT OR DELETE OR UPDATE OF title, description ON tasks
+    FOR EACH ROW EXECUTE FUNCTION record_task_search_change();
+
+CREATE TRIGGER comments_search_change
+    AFTER INSERT OR DELETE OR UPDATE OF content ON comments
+    FOR EACH ROW EXECUTE FUNCTION record_comment_search_change();
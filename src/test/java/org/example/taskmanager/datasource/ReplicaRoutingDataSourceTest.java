@@ -0,0 +1,235 @@
+package org.example.taskmanager.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.taskmanager.model.User;
+import org.example.taskmanager.security.UserPrincipal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Routing against two Postgres nodes, told apart by their database names. The nodes do not replicate, so a row
+ * written to the primary is missing on the replica, as it would be on one that has not caught up yet.
+ */
+@Testcontainers
+class ReplicaRoutingDataSourceTest {
+    private static final String PRIMARY = "primary_node";
+    private static final String REPLICA = "replica_node";
+    private static final Duration STICKY_WINDOW = Duration.ofSeconds(1);
+
+    @Container
+    static PostgreSQLContainer<?> primaryNode = new PostgreSQLContainer<>("postgres:14-alpine").withDatabaseName(PRIMARY);
+
+    @Container
+    static PostgreSQLContainer<?> replicaNode = new PostgreSQLContainer<>("postgres:14-alpine").withDatabaseName(REPLICA);
+
+    private final List<HikariDataSource> pools = new ArrayList<>();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ReplicaRoutingDataSource routing;
+    private JdbcTemplate jdbcTemplate;
+    private DataSourceTransactionManager transactionManager;
+
+    @BeforeAll
+    static void createTables() {
+        for (PostgreSQLContainer<?> node : List.of(primaryNode, replicaNode)) {
+            try (HikariDataSource pool = pool(node.getJdbcUrl())) {
+                new JdbcTemplate(pool).execute("create table notes (id bigint primary key)");
+            }
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        if (routing != null) {
+            routing.destroy();
+        }
+        pools.forEach(HikariDataSource::close);
+    }
+
+    @Test
+    void readOnlyTransactionsGoToTheReplica() {
+        connect(replicaNode.getJdbcUrl());
+
+        assertEquals(REPLICA, nodeOf(true));
+    }
+
+    @Test
+    void writesAndWorkOutsideTransactionsGoToThePrimary() {
+        connect(replicaNode.getJdbcUrl());
+
+        assertEquals(PRIMARY, nodeOf(false));
+        assertEquals(PRIMARY, jdbcTemplate.queryForObject("select current_database()", String.class));
+    }
+
+    @Test
+    void unreachableReplicaFallsBackToThePrimary() {
+        connect("jdbc:postgresql://localhost:1/" + REPLICA);
+
+        assertEquals(PRIMARY, nodeOf(true));
+        assertEquals(0, healthyGauge());
+
+        routing.checkReplicas();
+        assertEquals(PRIMARY, nodeOf(true));
+    }
+
+    @Test
+    void replicaReturnsToRotationOnceHealthy() {
+        connect(replicaNode.getJdbcUrl());
+        replicaNode.getDockerClient().pauseContainerCmd(replicaNode.getContainerId()).exec();
+        try {
+            routing.checkReplicas();
+            assertEquals(0, healthyGauge());
+            assertEquals(PRIMARY, nodeOf(true));
+        } finally {
+            replicaNode.getDockerClient().unpauseContainerCmd(replicaNode.getContainerId()).exec();
+        }
+
+        routing.checkReplicas();
+        assertEquals(1, healthyGauge());
+        assertEquals(REPLICA, nodeOf(true));
+    }
+
+    @Test
+    void writerReadsOwnWritesFromThePrimaryWithinTheStickyWindow() throws InterruptedException {
+        connect(replicaNode.getJdbcUrl());
+        signIn(1);
+        transaction(false).executeWithoutResult(status -> jdbcTemplate.update("insert into notes values (1)"));
+
+        assertEquals(PRIMARY, nodeOf(true));
+        assertEquals(1, transaction(true).execute(status ->
+                jdbcTemplate.queryForObject("select count(*) from notes where id = 1", Integer.class)));
+
+        signIn(2);
+        assertEquals(REPLICA, nodeOf(true));
+
+        signIn(1);
+        Thread.sleep(STICKY_WINDOW.plusMillis(200).toMillis());
+        assertEquals(REPLICA, nodeOf(true));
+    }
+
+    @Test
+    void rolledBackWriteDoesNotPinTheUser() {
+        connect(replicaNode.getJdbcUrl());
+        signIn(1);
+        transaction(false).executeWithoutResult(status -> {
+            jdbcTemplate.update("insert into notes values (2)");
+            status.setRollbackOnly();
+        });
+
+        assertEquals(REPLICA, nodeOf(true));
+    }
+
+    @Test
+    void writeIsTrackedOncePerTransaction() {
+        connect(replicaNode.getJdbcUrl());
+        signIn(1);
+
+        int synchronizations = transaction(false).execute(status -> {
+            jdbcTemplate.update("insert into notes values (5)");
+            // Resources outside the bound connection, such as a second pool user, ask the router again.
+            for (int i = 0; i < 3; i++) {
+                fetchConnection();
+            }
+            status.setRollbackOnly();
+            return TransactionSynchronizationManager.getSynchronizations().size();
+        });
+
+        assertEquals(1, synchronizations);
+    }
+
+    @Test
+    void innerTransactionTracksItsOwnWrite() {
+        connect(replicaNode.getJdbcUrl());
+        signIn(1);
+        TransactionTemplate inner = transaction(false);
+        inner.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        transaction(false).executeWithoutResult(outer -> {
+            jdbcTemplate.update("insert into notes values (3)");
+            inner.executeWithoutResult(status -> jdbcTemplate.update("insert into notes values (4)"));
+            assertEquals(1, TransactionSynchronizationManager.getSynchronizations().size());
+            outer.setRollbackOnly();
+        });
+
+        assertEquals(PRIMARY, nodeOf(true));
+    }
+
+    private void connect(String replicaUrl) {
+        HikariDataSource primary = pool(primaryNode.getJdbcUrl());
+        HikariDataSource replica = pool(replicaUrl);
+        pools.add(primary);
+        ReplicaProperties properties = new ReplicaProperties(true, List.of(), STICKY_WINDOW, 1000, 5000,
+                Duration.ofSeconds(1), Duration.ofSeconds(10));
+        routing = new ReplicaRoutingDataSource(primary, Map.of("replica", replica), properties, meterRegistry);
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionManager = new DataSourceTransactionManager(dataSource);
+    }
+
+    private static HikariDataSource pool(String url) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setJdbcUrl(url);
+        pool.setUsername(primaryNode.getUsername());
+        pool.setPassword(primaryNode.getPassword());
+        pool.setMaximumPoolSize(4);
+        pool.setConnectionTimeout(500);
+        pool.setValidationTimeout(250);
+        // Seconds; fails reads from a paused node instead of waiting for it.
+        pool.addDataSourceProperty("socketTimeout", "2");
+        // Lets the pool start against an unreachable node.
+        pool.setInitializationFailTimeout(-1);
+        return pool;
+    }
+
+    private void fetchConnection() {
+        try (Connection connection = routing.getConnection()) {
+            connection.isValid(1);
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private TransactionTemplate transaction(boolean readOnly) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(readOnly);
+        return template;
+    }
+
+    private String nodeOf(boolean readOnly) {
+        return transaction(readOnly).execute(status -> jdbcTemplate.queryForObject("select current_database()", String.class));
+    }
+
+    private double healthyGauge() {
+        return meterRegistry.get("datasource.replica.healthy").tag("replica", "replica").gauge().value();
+    }
+
+    private static void signIn(long userId) {
+        UserPrincipal principal = new UserPrincipal(User.builder().id(userId).username("user" + userId).build());
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+}
@@ -0,0 +1,166 @@
+package org.example.taskmanager.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Plans of the list and comment queries on a migrated Postgres seeded with a year of tasks. The repository methods
+ * are called and the SQL Hibernate generates is explained with the bound parameters, see {@link PlanRecorder}, so a
+ * query change that stops using the indexes of changeset 01.01 and falls back to a sequential scan fails here.
+ * <p>
+ * The indexes are defined on the partitioned tables, so the plans name the per-partition copies, which keep the
+ * column part of the name.
+ */
+@DataJpaTest
+@Testcontainers
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryPlanTest {
+    private static final int TASKS = 100_000;
+    private static final int USERS = 500;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:14-alpine");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private PlanRecorder planRecorder;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final LocalDate to = LocalDate.now();
+    private final LocalDate from = to.minusDays(30);
+
+    @BeforeAll
+    void seed() {
+        jdbcTemplate.execute("SELECT create_task_partitions(LOCALTIMESTAMP - INTERVAL '12 months', LOCALTIMESTAMP + INTERVAL '3 months')");
+        jdbcTemplate.update("""
+                INSERT INTO tasks (id, title, description, status, priority, author, assignee, creation_date, version)
+                SELECT nextval('tasks_seq'), 'Task ' || g, 'Description of task ' || g,
+                       (ARRAY['PENDING', 'IN_PROGRESS', 'COMPLETED'])[1 + g % 3],
+                       (ARRAY['HIGH', 'MEDIUM', 'LOW'])[1 + g % 3],
+                       g % ?, (g / 7) % ?, LOCALTIMESTAMP - (g % 365) * INTERVAL '1 day', 0
+                FROM generate_series(1, ?) g""", USERS, USERS, TASKS);
+        jdbcTemplate.update("""
+                INSERT INTO comments (id, content, task_id, author)
+                SELECT nextval('comments_seq'), 'Comment ' || n, t.id, t.assignee
+                FROM tasks t, generate_series(1, 2) n""");
+        jdbcTemplate.execute("ANALYZE tasks");
+        jdbcTemplate.execute("ANALYZE comments");
+    }
+
+    @Test
+    void authorDateRangeUsesAuthorIndex() {
+        assertIndexScans("author_creation_date", () ->
+                taskRepository.findAuthorSummaries(42L, from, to, List.of(false), PageRequest.of(0, 100)));
+    }
+
+    @Test
+    void assigneeDateRangeUsesAssigneeIndex() {
+        assertIndexScans("assignee_creation_date", () ->
+                taskRepository.findAssigneeSummaries(42L, from, to, List.of(false), PageRequest.of(0, 100)));
+    }
+
+    @Test
+    void keysetSliceUsesAuthorIndex() {
+        assertIndexScans("author_creation_date", () ->
+                taskRepository.findAuthorSlice(42L, from, to, Long.MAX_VALUE, List.of(false), PageRequest.ofSize(100)));
+    }
+
+    @Test
+    void assigneeKeysetSliceUsesAssigneeIndex() {
+        assertIndexScans("assignee_creation_date", () ->
+                taskRepository.findAssigneeSlice(42L, from, to, Long.MAX_VALUE, List.of(false), PageRequest.ofSize(100)));
+    }
+
+    @Test
+    void commentLookupUsesTaskIdIndex() {
+        long taskId = jdbcTemplate.queryForObject("SELECT max(task_id) FROM comments", Long.class);
+        assertIndexScans("task_id", () -> commentRepository.findAllByTaskIdOrderByIdAsc(taskId, PageRequest.of(0, 50)));
+    }
+
+    // Every query the call runs, a page's count query included, must avoid sequential scans, and one of them must
+    // use the expected index.
+    private void assertIndexScans(String indexNamePart, Runnable repositoryCall) {
+        List<String> plans = planRecorder.record(repositoryCall);
+        assertFalse(plans.isEmpty(), "No query was executed");
+
+        boolean indexUsed = false;
+        for (String json : plans) {
+            List<JsonNode> nodes = new ArrayList<>();
+            try {
+                collect(objectMapper.readTree(json).get(0).get("Plan"), nodes);
+            } catch (Exception e) {
+                throw new IllegalStateException(json, e);
+            }
+            assertFalse(nodes.stream().anyMatch(node -> node.path("Node Type").asText().equals("Seq Scan")),
+                    "Sequential scan in plan:\n" + json);
+            indexUsed |= nodes.stream().anyMatch(node ->
+                    node.path("Node Type").asText().matches("Index Scan|Index Only Scan")
+                            && node.path("Index Name").asText().contains(indexNamePart));
+        }
+        assertTrue(indexUsed, "No index scan on *" + indexNamePart + "* in plans:\n" + String.join("\n", plans));
+    }
+
+    @TestConfiguration
+    static class PlanRecording {
+        @Bean
+        PlanRecorder planRecorder() {
+            return new PlanRecorder();
+        }
+
+        @Bean
+        static BeanPostProcessor recordingDataSource(ObjectProvider<PlanRecorder> planRecorder) {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource && !(bean instanceof DelegatingDataSource) ?
+                            planRecorder.getObject().wrap(dataSource) : bean;
+                }
+            };
+        }
+    }
+
+    private static void collect(JsonNode plan, List<JsonNode> nodes) {
+        nodes.add(plan);
+        for (JsonNode child : plan.path("Plans")) {
+            collect(child, nodes);
+        }
+    }
+}